@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Builds the startup-optimized app under target/faststart: Spring AOT bean
+# definitions, a thin jar beside its dependencies (no devtools), and an
+# AppCDS archive recorded from a training run against a throwaway local
+# PostgreSQL. Needs JDK 17+, Maven with a warm local repository, and the
+# PostgreSQL server binaries (initdb, pg_ctl).
+#
+#   FASTSTART_PROFILES=replicas scripts/build-faststart.sh
+#
+# AOT fixes which beans exist for the Spring profiles it was built with, so
+# FASTSTART_PROFILES lists the ones the deployment activates besides faststart.
+# The archive only matches the JDK it was recorded with; build with the
+# runtime's JDK. Start the app from target/faststart with the command in
+# target/faststart/run.sh.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+DB_PORT=${LOADTEST_DB_PORT:-55432}
+PG_DIR=${PG_DIR:-target/faststart-pg}
+OUT=target/faststart
+PROFILES=faststart${FASTSTART_PROFILES:+,$FASTSTART_PROFILES}
+PG_BIN=${PG_BIN:-$(dirname "$(command -v pg_ctl || ls /usr/lib/postgresql/*/bin/pg_ctl | tail -n 1)")}
+
+rm -rf "$OUT"
+mvn -B -q -DskipTests -Pfaststart -Dfaststart.profiles="$PROFILES" package
+JAR=$(cd "$OUT" && ls prayer-portal-backend-*-faststart.jar)
+
+rm -rf "$PG_DIR"
+mkdir -p "$PG_DIR"
+"$PG_BIN/initdb" -D "$PG_DIR/data" -U prayer_user --auth=trust > "$PG_DIR/initdb.log"
+"$PG_BIN/pg_ctl" -D "$PG_DIR/data" -l "$PG_DIR/postgres.log" -w \
+    -o "-p $DB_PORT -k $(pwd)/$PG_DIR -c listen_addresses=localhost" start > /dev/null
+trap '"$PG_BIN/pg_ctl" -D "$PG_DIR/data" -m fast stop > /dev/null || true' EXIT
+
+"$PG_BIN/createdb" -h localhost -p "$DB_PORT" -U prayer_user prayer_portal
+
+# Refreshing the context loads the classes a real start needs; the JVM exits
+# before the web server starts and writes the archive on the way out. The
+# class path is recorded relative to target/faststart, so run from there.
+if ! (cd "$OUT" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -jar "$JAR" --spring.profiles.active="$PROFILES" \
+        --spring.datasource.url="jdbc:postgresql://localhost:$DB_PORT/prayer_portal" --spring.datasource.password= \
+        > ../faststart-training.log 2>&1); then
+    echo "Training run failed, see target/faststart-training.log" >&2
+    exit 1
+fi
+
+cat > "$OUT/run.sh" <<RUN
+#!/usr/bin/env bash
+# Generated by scripts/build-faststart.sh; extra arguments go to the app
+cd "\$(dirname "\$0")"
+exec java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true \${JAVA_OPTS:-} \\
+    -jar $JAR --spring.profiles.active=$PROFILES "\$@"
+RUN
+chmod +x "$OUT/run.sh"
+
+echo "Built $OUT for profiles $PROFILES ($(du -h "$OUT/app.jsa" | cut -f1) class data archive)"
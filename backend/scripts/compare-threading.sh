@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Compares throughput of the default (platform thread) profile against the
+# vthreads profile at rising concurrency. Needs JDK 21, wrk and the database
+# from application.yml. TOKEN is a JWT for an existing user.
+#
+#   TOKEN=... scripts/compare-threading.sh [path]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+ENDPOINT=${1:-/api/prayer-requests?size=20}
+PORT=${PORT:-8080}
+DURATION=${DURATION:-30s}
+LEVELS=${LEVELS:-"50 200 1000 4000"}
+URL="http://localhost:${PORT}${ENDPOINT}"
+AUTH="Authorization: Bearer ${TOKEN:?set TOKEN to a valid JWT}"
+
+mvn -B -q -Pjava21 -DskipTests package
+JAR=$(ls target/prayer-portal-backend-*.jar | head -n 1)
+
+run_profile() {
+    local profile=$1
+    java -jar "$JAR" --server.port="$PORT" ${profile:+--spring.profiles.active=$profile} \
+        > "target/compare-${profile:-default}.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -sf -o /dev/null -H "$AUTH" "$URL"; do
+        sleep 1
+    done
+    wrk -t4 -c50 -d10s -H "$AUTH" "$URL" > /dev/null
+
+    for connections in $LEVELS; do
+        wrk -t8 -c"$connections" -d"$DURATION" --latency -H "$AUTH" "$URL" \
+            | awk -v p="${profile:-default}" -v c="$connections" '
+                /Requests\/sec/ { rps = $2 }
+                /^ +99%/        { p99 = $2 }
+                /Non-2xx/       { errors = $NF }
+                END { printf "%-9s %6s conns  %10s req/s  p99 %8s  non-2xx %s\n", p, c, rps, p99, errors + 0 }'
+    done
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_profile ""
+run_profile vthreads
@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Boots the backend against a throwaway local PostgreSQL and replays a mixed
+# workload (signin, feed, search, pray, comment, notification polling) with
+# the generator in src/loadtest. Runs offline; needs JDK 17+, Maven with a
+# warm local repository, and the PostgreSQL server binaries (initdb, pg_ctl).
+#
+#   scripts/load-test.sh [key=value ...]
+#
+# Arguments override src/loadtest/resources/loadtest.properties, e.g.
+# concurrency=64 duration-seconds=120 mix.feed=60. Set PROFILES to add
+# Spring profiles (e.g. PROFILES=vthreads) and compare against the same run.
+# With PROFILES=querybudget the script fails if any endpoint went over its
+# @QueryBudget or repeated a statement (see target/query-budget.json); the
+# report is admin-only, so that also needs psql.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+DB_PORT=${LOADTEST_DB_PORT:-55432}
+PG_DIR=${PG_DIR:-target/loadtest-pg}
+PROFILES=loadtest,local-smtp${PROFILES:+,$PROFILES}
+PG_BIN=${PG_BIN:-$(dirname "$(command -v pg_ctl || ls /usr/lib/postgresql/*/bin/pg_ctl | tail -n 1)")}
+
+mvn -B -q -DskipTests package
+mvn -B -q -Ploadtest test-compile dependency:build-classpath \
+    -Dmdep.outputFile=target/loadtest.classpath -Dmdep.includeScope=test
+JAR=$(ls target/prayer-portal-backend-*.jar | head -n 1)
+
+# A fresh cluster each run, so every comparison starts from the same data
+rm -rf "$PG_DIR"
+mkdir -p "$PG_DIR"
+"$PG_BIN/initdb" -D "$PG_DIR/data" -U prayer_user --auth=trust > "$PG_DIR/initdb.log"
+"$PG_BIN/pg_ctl" -D "$PG_DIR/data" -l "$PG_DIR/postgres.log" -w \
+    -o "-p $DB_PORT -k $(pwd)/$PG_DIR -c listen_addresses=localhost" start > /dev/null
+
+APP_PID=
+cleanup() {
+    [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null && wait "$APP_PID" 2>/dev/null || true
+    "$PG_BIN/pg_ctl" -D "$PG_DIR/data" -m fast stop > /dev/null || true
+}
+trap cleanup EXIT
+
+"$PG_BIN/createdb" -h localhost -p "$DB_PORT" -U prayer_user prayer_portal
+
+LOADTEST_DB_PORT=$DB_PORT java -jar "$JAR" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" \
+    --spring.profiles.active="$PROFILES" \
+    > target/loadtest-app.log 2>&1 &
+APP_PID=$!
+
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:${PORT}/api/resources/types")" = 200 ]; do
+    kill -0 "$APP_PID" 2>/dev/null || { echo "Application exited, see target/loadtest-app.log" >&2; exit 1; }
+    sleep 1
+done
+
+java -cp "target/test-classes:target/classes:$(cat target/loadtest.classpath)" \
+    com.prayerportal.loadtest.LoadTest base-url="http://localhost:${PORT}/api" "$@"
+
+if [[ ",$PROFILES," == *",querybudget,"* ]]; then
+    # An admin made straight in the database; the password is querybudget-password
+    "$PG_BIN/psql" -q -h localhost -p "$DB_PORT" -U prayer_user -d prayer_portal -c \
+        "INSERT INTO users (username, email, first_name, last_name, password, role, enabled, digest_frequency, created_at)
+         VALUES ('querybudget-admin', 'querybudget-admin@loadtest.local', 'Query', 'Budget',
+                 '\$2a\$10\$oMN1rJQiHpWny8qy8tDwyexpiqtRmtBxMqNp/hkWhsCj9srw7tAd6', 'ADMIN', true, 'NONE', now())
+         ON CONFLICT (username) DO NOTHING"
+    TOKEN=$(curl -sf -H 'Content-Type: application/json' \
+        -d '{"username":"querybudget-admin","password":"querybudget-password"}' \
+        "http://localhost:${PORT}/api/auth/signin" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    curl -sf -H "Authorization: Bearer $TOKEN" \
+        "http://localhost:${MANAGEMENT_PORT}/actuator/querybudget" > target/query-budget.json
+    if ! grep -q '"violations":\[\]' target/query-budget.json; then
+        echo "Query budget exceeded or N+1 detected, see target/query-budget.json and target/loadtest-app.log" >&2
+        exit 1
+    fi
+    echo "Query budgets held"
+fi
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Runs a throwaway PostgreSQL primary and a streaming replica of it on local
+# ports, for trying out read replica routing with the `replicas` profile:
+#
+#   scripts/replica-cluster.sh start
+#   java -jar target/prayer-portal-backend-*.jar --spring.profiles.active=replicas
+#   scripts/replica-cluster.sh stop
+#
+# REPLICA_DELAY (e.g. 10s) holds back replay on the replica by that long, so
+# it goes over app.read-replicas.max-lag. Needs the PostgreSQL server binaries.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PRIMARY_PORT=${REPLICA_CLUSTER_PRIMARY_PORT:-55433}
+REPLICA_PORT=${REPLICA_CLUSTER_REPLICA_PORT:-55434}
+CLUSTER_DIR=${CLUSTER_DIR:-target/replica-cluster}
+REPLICA_DELAY=${REPLICA_DELAY:-0}
+PG_BIN=${PG_BIN:-$(dirname "$(command -v pg_ctl || ls /usr/lib/postgresql/*/bin/pg_ctl | tail -n 1)")}
+
+start_instance() {
+    "$PG_BIN/pg_ctl" -D "$CLUSTER_DIR/$1" -l "$CLUSTER_DIR/$1.log" -w \
+        -o "-p $2 -k $(pwd)/$CLUSTER_DIR -c listen_addresses=localhost" start > /dev/null
+}
+
+case "${1:-start}" in
+    start)
+        rm -rf "$CLUSTER_DIR"
+        mkdir -p "$CLUSTER_DIR"
+
+        # initdb's defaults already allow local replication connections under trust
+        "$PG_BIN/initdb" -D "$CLUSTER_DIR/primary" -U prayer_user --auth=trust > "$CLUSTER_DIR/initdb.log"
+        start_instance primary "$PRIMARY_PORT"
+        "$PG_BIN/createdb" -h localhost -p "$PRIMARY_PORT" -U prayer_user prayer_portal
+
+        # -R writes standby.signal and the connection back to the primary
+        "$PG_BIN/pg_basebackup" -h localhost -p "$PRIMARY_PORT" -U prayer_user \
+            -D "$CLUSTER_DIR/replica" -R -X stream
+        echo "recovery_min_apply_delay = '$REPLICA_DELAY'" >> "$CLUSTER_DIR/replica/postgresql.auto.conf"
+        start_instance replica "$REPLICA_PORT"
+
+        echo "Primary on port $PRIMARY_PORT, replica on port $REPLICA_PORT (apply delay $REPLICA_DELAY)"
+        ;;
+    stop)
+        for instance in replica primary; do
+            [ -d "$CLUSTER_DIR/$instance" ] && "$PG_BIN/pg_ctl" -D "$CLUSTER_DIR/$instance" -m fast stop > /dev/null || true
+        done
+        ;;
+    *)
+        echo "Usage: $0 start|stop" >&2
+        exit 1
+        ;;
+esac
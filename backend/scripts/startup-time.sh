@@ -0,0 +1,118 @@
+#!/usr/bin/env bash
+# Measures startup of the plain packaged jar and of the faststart build
+# (Spring AOT, AppCDS, selective lazy initialization) against a throwaway
+# local PostgreSQL, for CI. For each run it records the JVM's own startup
+# time from the "Started ... (process running for ...)" line, the time until
+# /actuator/health/readiness is UP, and the time until the first API request
+# is answered, all from launch. Medians go to target/startup-result.json.
+#
+#   scripts/startup-time.sh [runs]
+#
+# Fails when the faststart median time to first request is over
+# STARTUP_BUDGET_MS. Needs what scripts/build-faststart.sh needs.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+DB_PORT=${LOADTEST_DB_PORT:-55432}
+PG_DIR=${PG_DIR:-target/startup-pg}
+BUDGET_MS=${STARTUP_BUDGET_MS:-10000}
+PG_BIN=${PG_BIN:-$(dirname "$(command -v pg_ctl || ls /usr/lib/postgresql/*/bin/pg_ctl | tail -n 1)")}
+
+# Also leaves the plain repackaged jar in target/
+scripts/build-faststart.sh
+JAR=$(ls target/prayer-portal-backend-*.jar | grep -v faststart | head -n 1)
+
+rm -rf "$PG_DIR"
+mkdir -p "$PG_DIR"
+"$PG_BIN/initdb" -D "$PG_DIR/data" -U prayer_user --auth=trust > "$PG_DIR/initdb.log"
+"$PG_BIN/pg_ctl" -D "$PG_DIR/data" -l "$PG_DIR/postgres.log" -w \
+    -o "-p $DB_PORT -k $(pwd)/$PG_DIR -c listen_addresses=localhost" start > /dev/null
+
+APP_PID=
+cleanup() {
+    [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null && wait "$APP_PID" 2>/dev/null || true
+    "$PG_BIN/pg_ctl" -D "$PG_DIR/data" -m fast stop > /dev/null || true
+}
+trap cleanup EXIT
+
+"$PG_BIN/createdb" -h localhost -p "$DB_PORT" -U prayer_user prayer_portal
+
+APP_ARGS=(--server.port="$PORT" --management.server.port="$MANAGEMENT_PORT"
+          --spring.datasource.url="jdbc:postgresql://localhost:$DB_PORT/prayer_portal" --spring.datasource.password=
+          --app.jwt.secret=startup-time-secret-startup-time-secret-startup-time-0123456789)
+
+# Migrates the empty database, so no timed run includes Flyway's first pass
+java -Dspring.context.exit=onRefresh -jar "$JAR" "${APP_ARGS[@]}" > target/startup-migrate.log 2>&1
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints "<jvm started ms> <ready ms> <first request ms>" for one launch of the given command
+measure() {
+    local log=$1
+    shift
+    local launched ready first
+    launched=$(now_ms)
+    "$@" "${APP_ARGS[@]}" > "$log" 2>&1 &
+    APP_PID=$!
+
+    until curl -sf -o /dev/null "http://localhost:${MANAGEMENT_PORT}/actuator/health/readiness"; do
+        kill -0 "$APP_PID" 2>/dev/null || { echo "Application exited, see $log" >&2; exit 1; }
+        sleep 0.02
+    done
+    ready=$(now_ms)
+    if ! curl -sf -o /dev/null "http://localhost:${PORT}/api/resources/types"; then
+        kill "$APP_PID"
+        echo "First request failed, see $log" >&2
+        exit 1
+    fi
+    first=$(now_ms)
+
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+
+    local started
+    started=$(sed -n 's/.*process running for \([0-9.]*\).*/\1/p' "$log" | head -n 1)
+    echo "$(awk -v s="$started" 'BEGIN { printf "%d", s * 1000 }') $(( ready - launched )) $(( first - launched ))"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+: > target/startup-runs.txt
+for _ in $(seq "$RUNS"); do
+    result=$(measure target/startup-plain.log java -jar "$JAR")
+    echo "plain $result" >> target/startup-runs.txt
+    result=$(measure target/startup-faststart.log target/faststart/run.sh)
+    echo "faststart $result" >> target/startup-runs.txt
+done
+
+# Median of one column (2 started, 3 ready, 4 first request) for one variant
+column_median() {
+    awk -v v="$1" -v c="$2" '$1 == v { print $c }' target/startup-runs.txt | median
+}
+
+for variant in plain faststart; do
+    printf '%-9s started %6d ms  ready %6d ms  first request %6d ms\n' \
+        "$variant" "$(column_median "$variant" 2)" "$(column_median "$variant" 3)" "$(column_median "$variant" 4)"
+done
+cat > target/startup-result.json <<JSON
+{
+  "runs": $RUNS,
+  "plain": {"startedMs": $(column_median plain 2), "readyMs": $(column_median plain 3), "firstRequestMs": $(column_median plain 4)},
+  "faststart": {"startedMs": $(column_median faststart 2), "readyMs": $(column_median faststart 3), "firstRequestMs": $(column_median faststart 4)}
+}
+JSON
+
+FIRST_REQUEST=$(column_median faststart 4)
+if [ "$FIRST_REQUEST" -gt "$BUDGET_MS" ]; then
+    echo "faststart took ${FIRST_REQUEST} ms to its first request, over the ${BUDGET_MS} ms budget" >&2
+    exit 1
+fi
@@ -0,0 +1,61 @@
+package com.prayerportal.benchmark;
+
+import com.prayerportal.model.User;
+import com.prayerportal.repository.UserRepository;
+import com.prayerportal.security.jwt.AuthTokenFilter;
+import com.prayerportal.security.services.UserDetailsServiceImpl;
+import com.prayerportal.service.ActivityRollupService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through AuthTokenFilter: parse and verify the JWT,
+// load the user (from an in-memory repository) and record activity
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+    private AuthTokenFilter filter;
+    private String authorization;
+    
+    @Setup
+    public void setUp() {
+        User user = new User("benchmark", "benchmark@example.com", "Bench", "Mark", "");
+        user.setId(42L);
+        
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", Stubs.repository(UserRepository.class, 
+                Map.of("findByUsername", args -> Optional.of(user))));
+        
+        ActivityRollupService activityRollupService = new ActivityRollupService();
+        ReflectionTestUtils.setField(activityRollupService, "maxBuckets", 2000);
+        
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", JwtBenchmark.jwtUtils());
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "activityRollupService", activityRollupService);
+        
+        authorization = "Bearer " + JwtBenchmark.jwtUtils().generateJwtToken(JwtBenchmark.authentication());
+    }
+    
+    @Benchmark
+    public void authenticatedRequest(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/prayer-requests");
+        request.addHeader("Authorization", authorization);
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        SecurityContextHolder.clearContext();
+    }
+}
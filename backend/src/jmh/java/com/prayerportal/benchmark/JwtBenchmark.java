@@ -0,0 +1,62 @@
+package com.prayerportal.benchmark;
+
+import com.prayerportal.security.jwt.JwtUtils;
+import com.prayerportal.security.services.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    // HS256 needs at least 256 bits of key
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtils = jwtUtils();
+        authentication = authentication();
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+    
+    @Benchmark
+    public String getUserNameFromJwtToken() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+    
+    static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        return jwtUtils;
+    }
+    
+    static Authentication authentication() {
+        UserDetailsImpl principal = new UserDetailsImpl(42L, "benchmark", "benchmark@example.com", "Bench", "Mark", 
+                                                        "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,64 @@
+package com.prayerportal.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prayerportal.model.PrayerRequest;
+import com.prayerportal.model.User;
+import com.prayerportal.model.Visibility;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writes a feed page the way the controllers return it, author included
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrayerRequestPageSerializationBenchmark {
+    @Param({"10", "50", "200"})
+    private int pageSize;
+    
+    private ObjectMapper objectMapper;
+    private Page<PrayerRequest> page;
+    
+    @Setup
+    public void setUp() {
+        // Same modules and features as the mapper Spring Boot configures for the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<PrayerRequest> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User author = new User("user" + i, "user" + i + "@example.com", "First" + i, "Last" + i, "");
+            author.setId((long) i);
+            author.setBio("Member of the benchmark congregation since " + (2000 + i % 20));
+            
+            PrayerRequest request = new PrayerRequest("Prayer request " + i, 
+                    "Please pray for healing and strength for my family during this season. ".repeat(4), author);
+            request.setId((long) i);
+            request.setVisibility(Visibility.PUBLIC);
+            request.setPrayedForCount(i * 3);
+            request.setCreatedAt(now.minusMinutes(i));
+            request.setUpdatedAt(now.minusMinutes(i));
+            content.add(request);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("createdAt").descending()), 10_000);
+    }
+    
+    @Benchmark
+    public byte[] writePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
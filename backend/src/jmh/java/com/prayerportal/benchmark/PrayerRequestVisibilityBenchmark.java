@@ -0,0 +1,98 @@
+package com.prayerportal.benchmark;
+
+import com.prayerportal.controller.PrayerRequestController;
+import com.prayerportal.model.Group;
+import com.prayerportal.model.PrayerRequest;
+import com.prayerportal.model.User;
+import com.prayerportal.model.Visibility;
+import com.prayerportal.repository.GroupRepository;
+import com.prayerportal.service.GroupMembershipService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// PrayerRequestController.canUserViewPrayerRequest on a GROUP_ONLY request,
+// against groups of increasing size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrayerRequestVisibilityBenchmark {
+    private static final long GROUP_ID = 1L;
+    
+    @Param({"1000", "100000", "1000000"})
+    private int groupSize;
+    
+    // Every other id is a member, so the sparse case does not collapse to a range check
+    private List<Long> memberIds;
+    private GroupMembershipService groupMembershipService;
+    private PrayerRequestController controller;
+    private MethodHandle canUserView;
+    private PrayerRequest request;
+    private Long memberId;
+    private Long nonMemberId;
+    
+    @Setup
+    public void setUp() throws Exception {
+        memberIds = LongStream.range(0, groupSize).map(i -> i * 2 + 1).boxed().toList();
+        memberId = memberIds.get(memberIds.size() / 2);
+        nonMemberId = memberId + 1;
+        
+        // The EXISTS lookup answers from a set, standing in for the primary key
+        Set<Long> members = new HashSet<>(memberIds);
+        GroupRepository groupRepository = Stubs.repository(GroupRepository.class, Map.of(
+                "findMemberIds", args -> memberIds,
+                "isMember", args -> members.contains((Long) args[1])));
+        
+        groupMembershipService = new GroupMembershipService();
+        ReflectionTestUtils.setField(groupMembershipService, "groupRepository", groupRepository);
+        ReflectionTestUtils.setField(groupMembershipService, "maxCachedGroups", 10000);
+        ReflectionTestUtils.setField(groupMembershipService, "ttlMs", TimeUnit.HOURS.toMillis(1));
+        groupMembershipService.init();
+        
+        controller = new PrayerRequestController();
+        ReflectionTestUtils.setField(controller, "groupMembershipService", groupMembershipService);
+        canUserView = MethodHandles.privateLookupIn(PrayerRequestController.class, MethodHandles.lookup())
+                .findVirtual(PrayerRequestController.class, "canUserViewPrayerRequest", 
+                             MethodType.methodType(boolean.class, PrayerRequest.class, Long.class));
+        
+        User author = new User("author", "author@example.com", "Group", "Author", "");
+        author.setId(0L);
+        Group group = new Group("Benchmark group", null, author);
+        group.setId(GROUP_ID);
+        request = new PrayerRequest("Benchmark", "Benchmark request", author);
+        request.setVisibility(Visibility.GROUP_ONLY);
+        request.setGroup(group);
+    }
+    
+    @Benchmark
+    public boolean member() throws Throwable {
+        return (boolean) canUserView.invokeExact(controller, request, memberId);
+    }
+    
+    // Negative answers are always confirmed with EXISTS
+    @Benchmark
+    public boolean nonMember() throws Throwable {
+        return (boolean) canUserView.invokeExact(controller, request, nonMemberId);
+    }
+    
+    // First check after the index was dropped: answered by EXISTS while the
+    // member ids reload in the background. Each operation starts a reload, so
+    // the score includes the CPU those take from the benchmark thread.
+    @Benchmark
+    public boolean coldIndex() throws Throwable {
+        groupMembershipService.evict(GROUP_ID);
+        return (boolean) canUserView.invokeExact(controller, request, memberId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.prayerportal.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+// In-memory stand-ins for Spring Data repositories, so benchmarks measure
+// the code around a lookup rather than a database round trip
+final class Stubs {
+    private Stubs() {}
+    
+    // Answers the named methods; any other call fails loudly
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getName().equals("toString")) {
+                return type.getSimpleName() + " stub";
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+        return type.cast(stub);
+    }
+}
@@ -0,0 +1,49 @@
+package com.prayerportal.loadtest;
+
+import java.util.Arrays;
+
+// Latencies of one operation. Each worker owns its recorders, so nothing here
+// is synchronized; they are merged once the run is over.
+final class LatencyRecorder {
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long clientErrors;
+    private long errors;
+    
+    void record(long latencyNanos, int status) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        
+        if (status >= 500 || status == 0) {
+            errors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        }
+    }
+    
+    void merge(LatencyRecorder other) {
+        if (count + other.count > latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count + other.count);
+        }
+        System.arraycopy(other.latenciesNanos, 0, latenciesNanos, count, other.count);
+        count += other.count;
+        clientErrors += other.clientErrors;
+        errors += other.errors;
+    }
+    
+    // Nearest-rank percentile in milliseconds; sorts in place
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(latenciesNanos, 0, count);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return latenciesNanos[Math.max(rank - 1, 0)] / 1_000_000.0;
+    }
+    
+    int getCount() { return count; }
+    long getClientErrors() { return clientErrors; }
+    long getErrors() { return errors; }
+}
@@ -0,0 +1,386 @@
+package com.prayerportal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Closed-loop load generator for a running backend. Signs up a pool of users,
+// seeds prayer requests, then has each worker replay a weighted mix of
+// operations and reports latency percentiles and throughput per endpoint.
+//
+//   java -cp ... com.prayerportal.loadtest.LoadTest [key=value ...]
+//
+// Defaults are in loadtest.properties; scripts/load-test.sh wires it up.
+public class LoadTest {
+    private static final String PASSWORD = "loadtest-password";
+    private static final int FEED_PAGE_SIZE = 20;
+    private static final String[] TOPICS = {
+        "healing", "family", "strength", "work", "peace", "travel", "exams", "grief", "guidance", "friendship"
+    };
+    
+    private final Properties config;
+    private final String baseUrl;
+    private final int concurrency;
+    private final long seed;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> usernames = new ArrayList<>();
+    private final Map<String, String> tokens = Collections.synchronizedMap(new HashMap<>());
+    private long[] requestIds;
+    
+    public static void main(String[] args) throws Exception {
+        Properties config = new Properties();
+        try (InputStream defaults = LoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            config.load(defaults);
+        }
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            config.setProperty(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        
+        new LoadTest(config).run();
+    }
+    
+    LoadTest(Properties config) {
+        this.config = config;
+        this.baseUrl = config.getProperty("base-url");
+        this.concurrency = intProperty("concurrency");
+        this.seed = Long.parseLong(config.getProperty("seed"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    void run() throws Exception {
+        prepareUsers();
+        seedRequests();
+        
+        int warmupSeconds = intProperty("warmup-seconds");
+        int durationSeconds = intProperty("duration-seconds");
+        System.out.printf("Running %d workers for %ds after a %ds warmup%n", concurrency, durationSeconds, warmupSeconds);
+        
+        Map<Operation, LatencyRecorder> results = drive(warmupSeconds, durationSeconds);
+        report(results, durationSeconds);
+    }
+    
+    // Signup is skipped for users left over from an earlier run against the same database
+    private void prepareUsers() throws Exception {
+        int users = intProperty("users");
+        for (int i = 0; i < users; i++) {
+            usernames.add("lt-user-" + i);
+        }
+        
+        System.out.printf("Preparing %d users%n", users);
+        inParallel(users, i -> {
+            String username = usernames.get(i);
+            Map<String, Object> signUp = new LinkedHashMap<>();
+            signUp.put("username", username);
+            signUp.put("email", username + "@loadtest.local");
+            signUp.put("firstName", "Load");
+            signUp.put("lastName", "Test " + i);
+            signUp.put("password", PASSWORD);
+            send(post("/auth/signup", null, signUp), HttpResponse.BodyHandlers.discarding());
+            
+            String token = signIn(username);
+            if (token == null) {
+                throw new IllegalStateException("Could not sign in as " + username);
+            }
+            tokens.put(username, token);
+        });
+    }
+    
+    private void seedRequests() throws Exception {
+        int target = intProperty("seed-requests");
+        String token = tokens.get(usernames.get(0));
+        
+        JsonNode firstPage = getJson("/prayer-requests?size=1", token);
+        int missing = Math.max(target - firstPage.path("totalElements").asInt(), 0);
+        if (missing > 0) {
+            System.out.printf("Creating %d prayer requests%n", missing);
+            Random random = new Random(seed);
+            String[] topics = new String[missing];
+            for (int i = 0; i < missing; i++) {
+                topics[i] = TOPICS[random.nextInt(TOPICS.length)];
+            }
+            inParallel(missing, i -> {
+                Map<String, Object> request = new LinkedHashMap<>();
+                request.put("title", "Prayer for " + topics[i] + " #" + i);
+                request.put("description", "Please pray for " + topics[i] + " in this season. " +
+                                           "We are grateful for every prayer offered.");
+                request.put("visibility", "PUBLIC");
+                String author = usernames.get(i % usernames.size());
+                send(post("/prayer-requests", tokens.get(author), request), HttpResponse.BodyHandlers.discarding());
+            });
+        }
+        
+        List<Long> ids = new ArrayList<>(target);
+        for (int page = 0; ids.size() < target; page++) {
+            JsonNode content = getJson("/prayer-requests?size=100&page=" + page, token).path("content");
+            if (content.isEmpty()) {
+                break;
+            }
+            content.forEach(request -> ids.add(request.path("id").asLong()));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No prayer requests visible to " + usernames.get(0));
+        }
+        requestIds = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private Map<Operation, LatencyRecorder> drive(int warmupSeconds, int durationSeconds) throws Exception {
+        Operation[] operations = Operation.values();
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += intProperty("mix." + operations[i].getKey());
+            cumulativeWeights[i] = totalWeight;
+        }
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Every mix.* weight is zero");
+        }
+        
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        int weightBound = totalWeight;
+        
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            Worker worker = new Worker(w, operations, cumulativeWeights, weightBound);
+            workers.add(executor.submit(() -> worker.runUntil(measureFrom, end)));
+        }
+        
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+            worker.get().forEach((operation, recorder) ->
+                    merged.computeIfAbsent(operation, o -> new LatencyRecorder()).merge(recorder));
+        }
+        executor.shutdown();
+        return merged;
+    }
+    
+    private void report(Map<Operation, LatencyRecorder> results, int durationSeconds) throws IOException {
+        LatencyRecorder total = new LatencyRecorder();
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        
+        System.out.printf("%n%-36s %9s %9s %9s %9s %9s %7s %7s%n",
+                          "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "4xx", "errors");
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = results.get(operation);
+            if (recorder == null) {
+                continue;
+            }
+            endpoints.add(printRow(operation.getLabel(), recorder, durationSeconds));
+            total.merge(recorder);
+        }
+        Map<String, Object> overall = printRow("total", total, durationSeconds);
+        
+        Map<String, Object> settings = new TreeMap<>();
+        config.stringPropertyNames().forEach(key -> settings.put(key, config.getProperty(key)));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("config", settings);
+        result.put("endpoints", endpoints);
+        result.put("total", overall);
+        
+        File resultFile = new File(config.getProperty("result-file"));
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, result);
+        System.out.printf("%nResults written to %s%n", resultFile);
+    }
+    
+    private Map<String, Object> printRow(String label, LatencyRecorder recorder, int durationSeconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", label);
+        row.put("requests", recorder.getCount());
+        row.put("throughputPerSecond", (double) recorder.getCount() / durationSeconds);
+        row.put("p50Ms", recorder.percentileMillis(50));
+        row.put("p99Ms", recorder.percentileMillis(99));
+        row.put("maxMs", recorder.percentileMillis(100));
+        row.put("clientErrors", recorder.getClientErrors());
+        row.put("errors", recorder.getErrors());
+        
+        System.out.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %7d %7d%n", label, recorder.getCount(),
+                          row.get("throughputPerSecond"), row.get("p50Ms"), row.get("p99Ms"), row.get("maxMs"),
+                          recorder.getClientErrors(), recorder.getErrors());
+        return row;
+    }
+    
+    private String signIn(String username) throws IOException, InterruptedException {
+        Map<String, Object> login = Map.of("username", username, "password", PASSWORD);
+        HttpResponse<String> response = send(post("/auth/signin", null, login), HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? objectMapper.readTree(response.body()).path("token").asText() : null;
+    }
+    
+    private JsonNode getJson(String path, String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+    
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+    
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return client.send(request, handler);
+    }
+    
+    private void inParallel(int count, ThrowingIntConsumer action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(executor.submit(() -> {
+                action.accept(index);
+                return null;
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+    }
+    
+    private int intProperty(String key) {
+        String value = config.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + key);
+        }
+        return Integer.parseInt(value.trim());
+    }
+    
+    @FunctionalInterface
+    private interface ThrowingIntConsumer {
+        void accept(int value) throws Exception;
+    }
+    
+    // One simulated client: a single user issuing requests back to back
+    private final class Worker {
+        private final Random random;
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+        private final int totalWeight;
+        private final String username;
+        private final int lastFeedPage;
+        private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        private String token;
+        private int feedPage;
+        
+        private Worker(int index, Operation[] operations, int[] cumulativeWeights, int totalWeight) {
+            this.random = new Random(seed + index);
+            this.operations = operations;
+            this.cumulativeWeights = cumulativeWeights;
+            this.totalWeight = totalWeight;
+            this.username = usernames.get(index % usernames.size());
+            this.token = tokens.get(username);
+            this.lastFeedPage = Math.max((requestIds.length - 1) / FEED_PAGE_SIZE, 0);
+        }
+        
+        private Map<Operation, LatencyRecorder> runUntil(long measureFrom, long end) throws InterruptedException {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                Operation operation = pick();
+                int status;
+                try {
+                    status = execute(operation);
+                } catch (IOException e) {
+                    status = 0;
+                }
+                long latency = System.nanoTime() - now;
+                if (now >= measureFrom) {
+                    recorders.computeIfAbsent(operation, o -> new LatencyRecorder()).record(latency, status);
+                }
+            }
+            return recorders;
+        }
+        
+        private Operation pick() {
+            int roll = random.nextInt(totalWeight);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+        
+        private int execute(Operation operation) throws IOException, InterruptedException {
+            switch (operation) {
+                case SIGNIN: {
+                    Map<String, Object> login = Map.of("username", username, "password", PASSWORD);
+                    HttpResponse<String> response = send(post("/auth/signin", null, login),
+                                                         HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() == 200) {
+                        token = objectMapper.readTree(response.body()).path("token").asText();
+                    }
+                    return response.statusCode();
+                }
+                case FEED: {
+                    // Scroll a few pages down, then start again from the top
+                    int page = feedPage;
+                    feedPage = page >= lastFeedPage || random.nextInt(4) == 0 ? 0 : page + 1;
+                    return get("/prayer-requests?size=" + FEED_PAGE_SIZE + "&page=" + page);
+                }
+                case SEARCH:
+                    return get("/prayer-requests?size=" + FEED_PAGE_SIZE + "&search=" + TOPICS[random.nextInt(TOPICS.length)]);
+                case PRAY:
+                    return send(post("/prayer-requests/" + randomRequestId() + "/pray", token, Map.of()),
+                                HttpResponse.BodyHandlers.discarding()).statusCode();
+                case COMMENT:
+                    return send(post("/comments/prayer-request/" + randomRequestId(), token,
+                                     Map.of("content", "Praying for you and your " + TOPICS[random.nextInt(TOPICS.length)])),
+                                HttpResponse.BodyHandlers.discarding()).statusCode();
+                case COMMENTS:
+                    return get("/comments/prayer-request/" + randomRequestId());
+                case GROUPS:
+                    return get("/groups");
+                case NOTIFICATIONS:
+                    return get("/notifications/unread-count");
+                default:
+                    throw new IllegalStateException("Unhandled operation " + operation);
+            }
+        }
+        
+        private int get(String path) throws IOException, InterruptedException {
+            return send(request(path, token).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+        
+        private long randomRequestId() {
+            return requestIds[random.nextInt(requestIds.length)];
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.prayerportal.loadtest;
+
+// One kind of request in the traffic mix; the label is how it is reported
+enum Operation {
+    SIGNIN("signin", "POST /auth/signin"),
+    FEED("feed", "GET /prayer-requests"),
+    SEARCH("search", "GET /prayer-requests?search"),
+    PRAY("pray", "POST /prayer-requests/{id}/pray"),
+    COMMENT("comment", "POST /comments/prayer-request/{id}"),
+    COMMENTS("comments", "GET /comments/prayer-request/{id}"),
+    GROUPS("groups", "GET /groups"),
+    NOTIFICATIONS("notifications", "GET /notifications/unread-count");
+    
+    private final String key;
+    private final String label;
+    
+    Operation(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+    
+    String getKey() { return key; }
+    String getLabel() { return label; }
+}
@@ -0,0 +1,105 @@
+package com.prayerportal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Shape of the synthetic dataset loaded by DatasetGenerator under the dataset profile
+@Component
+@ConfigurationProperties(prefix = "app.dataset")
+public class DatasetProperties {
+    // Same seed and sizes, same rows
+    private long seed = 42;
+    
+    private int users = 100_000;
+    
+    private int groups = 2_000;
+    
+    // Group sizes fall off as maxGroupSize / rank^groupSizeExponent
+    private int maxGroupSize = 20_000;
+    
+    private int minGroupSize = 3;
+    
+    private double groupSizeExponent = 1.0;
+    
+    private int prayerRequests = 1_000_000;
+    
+    // Totals spread over requests by a power law, so a few requests go viral
+    private long prayers = 6_000_000;
+    
+    private long comments = 1_000_000;
+    
+    private long notifications = 2_000_000;
+    
+    private double viralExponent = 0.8;
+    
+    // How unevenly authorship is spread across users
+    private double authorExponent = 1.1;
+    
+    private double groupOnlyShare = 0.15;
+    
+    private double privateShare = 0.10;
+    
+    private double answeredShare = 0.10;
+    
+    private int historyDays = 730;
+    
+    // Every generated user signs in with this password
+    private String password = "password";
+    
+    private boolean exitWhenDone = true;
+    
+    // Getters and Setters
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+    
+    public int getUsers() { return users; }
+    public void setUsers(int users) { this.users = users; }
+    
+    public int getGroups() { return groups; }
+    public void setGroups(int groups) { this.groups = groups; }
+    
+    public int getMaxGroupSize() { return maxGroupSize; }
+    public void setMaxGroupSize(int maxGroupSize) { this.maxGroupSize = maxGroupSize; }
+    
+    public int getMinGroupSize() { return minGroupSize; }
+    public void setMinGroupSize(int minGroupSize) { this.minGroupSize = minGroupSize; }
+    
+    public double getGroupSizeExponent() { return groupSizeExponent; }
+    public void setGroupSizeExponent(double groupSizeExponent) { this.groupSizeExponent = groupSizeExponent; }
+    
+    public int getPrayerRequests() { return prayerRequests; }
+    public void setPrayerRequests(int prayerRequests) { this.prayerRequests = prayerRequests; }
+    
+    public long getPrayers() { return prayers; }
+    public void setPrayers(long prayers) { this.prayers = prayers; }
+    
+    public long getComments() { return comments; }
+    public void setComments(long comments) { this.comments = comments; }
+    
+    public long getNotifications() { return notifications; }
+    public void setNotifications(long notifications) { this.notifications = notifications; }
+    
+    public double getViralExponent() { return viralExponent; }
+    public void setViralExponent(double viralExponent) { this.viralExponent = viralExponent; }
+    
+    public double getAuthorExponent() { return authorExponent; }
+    public void setAuthorExponent(double authorExponent) { this.authorExponent = authorExponent; }
+    
+    public double getGroupOnlyShare() { return groupOnlyShare; }
+    public void setGroupOnlyShare(double groupOnlyShare) { this.groupOnlyShare = groupOnlyShare; }
+    
+    public double getPrivateShare() { return privateShare; }
+    public void setPrivateShare(double privateShare) { this.privateShare = privateShare; }
+    
+    public double getAnsweredShare() { return answeredShare; }
+    public void setAnsweredShare(double answeredShare) { this.answeredShare = answeredShare; }
+    
+    public int getHistoryDays() { return historyDays; }
+    public void setHistoryDays(int historyDays) { this.historyDays = historyDays; }
+    
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    
+    public boolean isExitWhenDone() { return exitWhenDone; }
+    public void setExitWhenDone(boolean exitWhenDone) { this.exitWhenDone = exitWhenDone; }
+}
@@ -0,0 +1,26 @@
+package com.prayerportal.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Marks the span of one request on its thread in a flight recording, so
+// execution samples taken in between can be charged to the endpoint.
+// Costs nothing unless a recording has it enabled.
+@Name(EndpointEvent.NAME)
+@Label("Endpoint")
+@Description("One HTTP request, tagged with its handler's URI pattern")
+@Category("Prayer Portal")
+@StackTrace(false)
+public class EndpointEvent extends Event {
+    public static final String NAME = "com.prayerportal.Endpoint";
+    
+    @Label("Method")
+    String method;
+    
+    @Label("URI")
+    String uri;
+}
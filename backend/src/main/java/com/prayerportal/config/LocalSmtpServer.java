@@ -0,0 +1,109 @@
+package com.prayerportal.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Minimal in-process SMTP sink for exercising the digest pipeline locally; it
+// accepts and counts every message and delivers nothing.
+@Component
+@Profile("local-smtp")
+public class LocalSmtpServer {
+    private static final Logger logger = LoggerFactory.getLogger(LocalSmtpServer.class);
+    
+    @Value("${app.local-smtp.port:2525}")
+    private int port;
+    
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private ServerSocket serverSocket;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        workers.execute(this::acceptLoop);
+        logger.info("Local SMTP sink listening on port {}", port);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        serverSocket.close();
+        workers.shutdownNow();
+        logger.info("Local SMTP sink received {} messages over {} sessions", receivedMessages.get(), sessions.get());
+    }
+    
+    public long getReceivedMessages() {
+        return receivedMessages.get();
+    }
+    
+    public long getSessions() {
+        return sessions.get();
+    }
+    
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.incrementAndGet();
+                workers.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Local SMTP sink accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost SMTP sink");
+            
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                        reply(out, "250-localhost\r\n250 8BITMIME");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message body is discarded
+                        }
+                        receivedMessages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Local SMTP session ended: {}", e.getMessage());
+        }
+    }
+    
+    private void reply(Writer out, String response) throws IOException {
+        out.write(response);
+        out.write("\r\n");
+        out.flush();
+    }
+}
\ No newline at end of file
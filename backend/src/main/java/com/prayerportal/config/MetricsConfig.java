@@ -0,0 +1,21 @@
+package com.prayerportal.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Metrics that Spring Boot does not bind on its own. Request latency, the
+// Hikari pool, the @Async executor and Hibernate's statistics (once
+// generate_statistics is on) are already published by auto-configuration.
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer(
+            @Value("${app.query-budget.enabled:false}") boolean captureStatements) {
+        QueryCountInspector inspector = new QueryCountInspector(captureStatements);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
@@ -0,0 +1,70 @@
+package com.prayerportal.config;
+
+import com.prayerportal.model.NotificationType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.notifications.retention")
+public class NotificationRetentionProperties {
+    private boolean enabled = true;
+    
+    // Days to keep a notification, by type; types not listed fall back to defaultDays
+    private Map<NotificationType, Integer> types = new EnumMap<>(NotificationType.class);
+    
+    private int defaultDays = 180;
+    
+    // Read notifications are purged sooner than their type's retention
+    private int readDays = 30;
+    
+    private int batchSize = 1000;
+    
+    private int maxBatchesPerRun = 500;
+    
+    private long pauseBetweenBatchesMs = 50;
+    
+    // Set when notifications has been converted to monthly range partitions
+    // (see db/partitioning/notifications_partitioned.sql)
+    private boolean partitioned = false;
+    
+    private int partitionMonthsAhead = 2;
+    
+    public int getRetentionDays(NotificationType type) {
+        return types.getOrDefault(type, defaultDays);
+    }
+    
+    public int getMaxRetentionDays() {
+        return Math.max(defaultDays, types.values().stream().mapToInt(Integer::intValue).max().orElse(0));
+    }
+    
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public Map<NotificationType, Integer> getTypes() { return types; }
+    public void setTypes(Map<NotificationType, Integer> types) { this.types = types; }
+    
+    public int getDefaultDays() { return defaultDays; }
+    public void setDefaultDays(int defaultDays) { this.defaultDays = defaultDays; }
+    
+    public int getReadDays() { return readDays; }
+    public void setReadDays(int readDays) { this.readDays = readDays; }
+    
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    
+    public int getMaxBatchesPerRun() { return maxBatchesPerRun; }
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) { this.maxBatchesPerRun = maxBatchesPerRun; }
+    
+    public long getPauseBetweenBatchesMs() { return pauseBetweenBatchesMs; }
+    public void setPauseBetweenBatchesMs(long pauseBetweenBatchesMs) { this.pauseBetweenBatchesMs = pauseBetweenBatchesMs; }
+    
+    public boolean isPartitioned() { return partitioned; }
+    public void setPartitioned(boolean partitioned) { this.partitioned = partitioned; }
+    
+    public int getPartitionMonthsAhead() { return partitionMonthsAhead; }
+    public void setPartitionMonthsAhead(int partitionMonthsAhead) { this.partitionMonthsAhead = partitionMonthsAhead; }
+}
\ No newline at end of file
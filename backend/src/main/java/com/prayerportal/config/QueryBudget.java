@@ -0,0 +1,15 @@
+package com.prayerportal.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most SQL statements one request to this endpoint may issue, counting the
+// user lookup during authentication. Checked only under the querybudget
+// profile; a method-level budget overrides one on the controller.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,129 @@
+package com.prayerportal.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Checks every request against its endpoint's @QueryBudget and flags
+// statements that ran repeatedly within one request, which is how a lazy
+// association loaded per row (an N+1) shows up. Violations are logged and
+// kept for /actuator/querybudget, which scripts/load-test.sh fails on.
+@Component
+@Endpoint(id = "querybudget")
+@ConditionalOnProperty(prefix = "app.query-budget", name = "enabled", havingValue = "true")
+public class QueryBudgetMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetMonitor.class);
+    
+    @Value("${app.query-budget.default-max:10}")
+    private int defaultBudget;
+    
+    @Value("${app.query-budget.repeat-threshold:3}")
+    private int repeatThreshold;
+    
+    private final ConcurrentMap<Method, Integer> budgets = new ConcurrentHashMap<>();
+    private final Map<String, Violation> violations = new TreeMap<>();
+    
+    public void check(HttpServletRequest request, String uri, int statements) {
+        // Unmatched paths and static resources have no budget to hold them to
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        
+        int budget = budgets.computeIfAbsent(handler.getMethod(), method -> budgetFor(handler));
+        Map<String, Integer> repeated = new HashMap<>();
+        QueryCountInspector.executions().forEach((sql, executions) -> {
+            if (executions >= repeatThreshold) {
+                repeated.put(sql, executions);
+            }
+        });
+        if (statements <= budget && repeated.isEmpty()) {
+            return;
+        }
+        
+        String endpoint = request.getMethod() + " " + uri;
+        synchronized (violations) {
+            Violation violation = violations.computeIfAbsent(endpoint, key -> new Violation(budget));
+            violation.requests++;
+            if (statements > violation.maxStatements) {
+                violation.maxStatements = statements;
+                logger.warn("{} issued {} SQL statements (budget {})", endpoint, statements, budget);
+            }
+            repeated.forEach((sql, executions) -> {
+                Integer previous = violation.repeatedStatements.get(sql);
+                if (previous == null) {
+                    logger.warn("Likely N+1 in {}: ran {} times in one request: {}", endpoint, executions, sql);
+                }
+                if (previous == null || executions > previous) {
+                    violation.repeatedStatements.put(sql, executions);
+                }
+            });
+        }
+    }
+    
+    @ReadOperation
+    public Map<String, Object> report() {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        synchronized (violations) {
+            violations.forEach((endpoint, violation) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("endpoint", endpoint);
+                entry.put("budget", violation.budget);
+                entry.put("maxStatements", violation.maxStatements);
+                entry.put("requests", violation.requests);
+                entry.put("repeatedStatements", new TreeMap<>(violation.repeatedStatements));
+                endpoints.add(entry);
+            });
+        }
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("defaultBudget", defaultBudget);
+        report.put("repeatThreshold", repeatThreshold);
+        report.put("violations", endpoints);
+        return report;
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        synchronized (violations) {
+            violations.clear();
+        }
+    }
+    
+    private int budgetFor(HandlerMethod handler) {
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+    
+    private static final class Violation {
+        private final int budget;
+        private int maxStatements;
+        private long requests;
+        private final Map<String, Integer> repeatedStatements = new HashMap<>();
+        
+        private Violation(int budget) {
+            this.budget = budget;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.prayerportal.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a
+// request is being measured. Threads outside a request (scheduled jobs, @Async
+// work) are never started, so their statements are ignored. Capturing the
+// statement text as well is only meant for the querybudget profile.
+public class QueryCountInspector implements StatementInspector {
+    private static final long serialVersionUID = 1L;
+    
+    private static final ThreadLocal<Count> CURRENT = ThreadLocal.withInitial(Count::new);
+    
+    private final boolean captureStatements;
+    
+    public QueryCountInspector(boolean captureStatements) {
+        this.captureStatements = captureStatements;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        Count count = CURRENT.get();
+        if (count.active) {
+            count.statements++;
+            if (captureStatements) {
+                count.executions.merge(sql, 1, Integer::sum);
+            }
+        }
+        return sql;
+    }
+    
+    public static void start() {
+        Count count = CURRENT.get();
+        count.active = true;
+        count.statements = 0;
+        count.executions.clear();
+    }
+    
+    // Returns the statements counted since start() and stops counting
+    public static int stop() {
+        Count count = CURRENT.get();
+        count.active = false;
+        return count.statements;
+    }
+    
+    // Times each distinct statement ran in the last measured request, when
+    // capturing; parameters are bound separately, so repeats share one entry
+    public static Map<String, Integer> executions() {
+        return Collections.unmodifiableMap(CURRENT.get().executions);
+    }
+    
+    private static final class Count {
+        private boolean active;
+        private int statements;
+        private final Map<String, Integer> executions = new HashMap<>();
+    }
+}
@@ -0,0 +1,89 @@
+package com.prayerportal.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the auto-configured DataSource when app.read-replicas.enabled is
+// set. The primary keeps every spring.datasource setting; replicas share its
+// credentials unless they name their own.
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName(ReplicaRouter.PRIMARY);
+        return dataSource;
+    }
+    
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(ReadReplicaProperties properties, HikariDataSource primaryDataSource,
+                                       MeterRegistry meterRegistry) {
+        if (properties.getReplicas().isEmpty()) {
+            throw new IllegalStateException("app.read-replicas.enabled is set but no replicas are listed");
+        }
+        
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryDataSource.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryDataSource.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaxPoolSize());
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            dataSource.setReadOnly(true);
+            // Not a bean, so the pool metrics auto-configuration never sees it
+            dataSource.setMetricRegistry(meterRegistry);
+            // A replica that is down at startup is routed around, not fatal
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(dataSource);
+        }
+        
+        return new ReplicaRouter(properties, primaryDataSource, replicas, meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRouter replicaRouter) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaRouter);
+        routing.setTargetDataSources(replicaRouter.targetDataSources(primaryDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        // Known up front, so the proxy never opens a connection just to read them
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+    
+    // With open-in-view the session lives for the whole request; holding its
+    // connection across transactions would pin every later one to the first
+    // transaction's choice of database
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
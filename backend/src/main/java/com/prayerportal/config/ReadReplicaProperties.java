@@ -0,0 +1,72 @@
+package com.prayerportal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app.read-replicas")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    // Milliseconds a replica may trail the primary and still serve reads
+    private long maxLag = 5000;
+    
+    // Where reads go when every replica is over max-lag or unreachable
+    private LaggingFallback laggingFallback = LaggingFallback.PRIMARY;
+    
+    // Milliseconds after a user's own write during which their reads stay on the primary
+    private long stickyWindow = 5000;
+    
+    private long lagCheckInterval = 2000;
+    
+    public enum LaggingFallback {
+        PRIMARY,
+        // Stale reads beat loading the primary; replicas that cannot be reached are still skipped
+        LEAST_LAGGED
+    }
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+    
+    public long getMaxLag() { return maxLag; }
+    public void setMaxLag(long maxLag) { this.maxLag = maxLag; }
+    
+    public LaggingFallback getLaggingFallback() { return laggingFallback; }
+    public void setLaggingFallback(LaggingFallback laggingFallback) { this.laggingFallback = laggingFallback; }
+    
+    public long getStickyWindow() { return stickyWindow; }
+    public void setStickyWindow(long stickyWindow) { this.stickyWindow = stickyWindow; }
+    
+    public long getLagCheckInterval() { return lagCheckInterval; }
+    public void setLagCheckInterval(long lagCheckInterval) { this.lagCheckInterval = lagCheckInterval; }
+    
+    public static class Replica {
+        private String url;
+        
+        // Default to the primary's credentials
+        private String username;
+        private String password;
+        
+        private int maxPoolSize = 10;
+        
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        
+        public int getMaxPoolSize() { return maxPoolSize; }
+        public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+    }
+}
@@ -0,0 +1,18 @@
+package com.prayerportal.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Wrapped in a LazyConnectionDataSourceProxy, so the lookup happens at the
+// first statement, once the transaction's read-only flag is known.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReplicaRouter router;
+    
+    public ReadWriteRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.route();
+    }
+}
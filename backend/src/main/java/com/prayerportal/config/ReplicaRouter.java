@@ -0,0 +1,250 @@
+package com.prayerportal.config;
+
+import com.prayerportal.security.services.UserDetailsImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Decides which database each transaction's connection comes from. Read-only
+// transactions go round-robin to replicas within max-lag, unless the current
+// user wrote something in the last sticky-window; everything else goes to the
+// primary. Lag is measured every lag-check-interval by comparing each
+// replica's replayed WAL position with the primary's. Sessions on a replica
+// only read the second-level cache: a lagging row put there would outlive the
+// lag, so entries are only filled from the primary.
+public class ReplicaRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+    
+    static final String PRIMARY = "primary";
+    
+    private static final String PRIMARY_LSN_SQL = "SELECT CAST(pg_current_wal_lsn() AS text)";
+    
+    // A replica that has replayed up to the primary's position is current however
+    // long ago its last transaction was; one that is not a standby at all is the
+    // second instance of a local test setup and counts as current too
+    private static final String REPLICA_LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_wal_lsn_diff(CAST(? AS pg_lsn), pg_last_wal_replay_lsn()) <= 0 THEN 0 " +
+            "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint) END";
+    
+    private final ReadReplicaProperties properties;
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    // Only this instance's writes; another instance behind the same load
+    // balancer does not see them and may still send the user to a replica
+    private final ConcurrentMap<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    
+    private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+    
+    private volatile List<Replica> eligible = List.of();
+    private volatile Replica leastLagged;
+    
+    public ReplicaRouter(ReadReplicaProperties properties, DataSource primaryDataSource,
+                         List<HikariDataSource> replicaDataSources, MeterRegistry registry) {
+        this.properties = properties;
+        this.primary = jdbcTemplate(primaryDataSource);
+        for (HikariDataSource dataSource : replicaDataSources) {
+            Replica replica = new Replica(dataSource.getPoolName(), dataSource);
+            replicas.add(replica);
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMs)
+                .description("How far the replica trails the primary; -1 when it cannot be reached")
+                .baseUnit("milliseconds")
+                .tag("replica", replica.name)
+                .register(registry);
+        }
+    }
+    
+    public Map<Object, Object> targetDataSources(DataSource primaryDataSource) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primaryDataSource);
+        replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        return targets;
+    }
+    
+    // Runs the action's read-only transactions on the primary too, for reads
+    // that are cached and must not be behind a write that just committed
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean nested = primaryOnly.get() != null;
+        primaryOnly.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (!nested) {
+                primaryOnly.remove();
+            }
+        }
+    }
+    
+    // Called once per transaction, when its first statement needs a connection
+    public Object route() {
+        if (primaryOnly.get() != null) {
+            return PRIMARY;
+        }
+        
+        Long userId = currentUserId();
+        
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWrites.put(userId, System.currentTimeMillis());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        
+        if (userId != null) {
+            Long lastWrite = lastWrites.get(userId);
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < properties.getStickyWindow()) {
+                return PRIMARY;
+            }
+        }
+        
+        List<Replica> candidates = eligible;
+        if (!candidates.isEmpty()) {
+            readCacheOnly();
+            return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size())).name;
+        }
+        
+        Replica fallback = leastLagged;
+        if (fallback != null && properties.getLaggingFallback() == ReadReplicaProperties.LaggingFallback.LEAST_LAGGED) {
+            readCacheOnly();
+            return fallback.name;
+        }
+        return PRIMARY;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.read-replicas.lag-check-interval:2000}")
+    public void checkLag() {
+        String primaryLsn;
+        try {
+            primaryLsn = primary.queryForObject(PRIMARY_LSN_SQL, String.class);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the primary's WAL position: {}", e.getMessage());
+            return;
+        }
+        
+        List<Replica> current = new ArrayList<>();
+        Replica least = null;
+        for (Replica replica : replicas) {
+            long lag = measure(replica, primaryLsn);
+            if (lag >= 0 && replica.lagMs < 0) {
+                logger.info("Replica {} is reachable, {} ms behind the primary", replica.name, lag);
+            }
+            replica.lagMs = lag;
+            if (lag < 0) {
+                continue;
+            }
+            
+            if (lag <= properties.getMaxLag()) {
+                current.add(replica);
+            }
+            if (least == null || lag < least.lagMs) {
+                least = replica;
+            }
+        }
+        
+        if (current.size() != eligible.size()) {
+            logger.info("{} of {} replicas within {} ms of the primary", current.size(), replicas.size(),
+                        properties.getMaxLag());
+        }
+        eligible = List.copyOf(current);
+        leastLagged = least;
+        
+        long cutoff = System.currentTimeMillis() - properties.getStickyWindow();
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+    
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+    
+    private long measure(Replica replica, String primaryLsn) {
+        try {
+            Long lag = replica.jdbcTemplate.queryForObject(REPLICA_LAG_SQL, Long.class, primaryLsn);
+            // Never replayed anything, so there is nothing to measure against
+            return lag != null ? Math.max(lag, 0) : Long.MAX_VALUE;
+        } catch (RuntimeException e) {
+            if (replica.lagMs >= 0) {
+                logger.warn("Replica {} is unreachable, routing around it: {}", replica.name, e.getMessage());
+            }
+            return -1;
+        }
+    }
+    
+    private JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout((int) Math.max(1, properties.getLagCheckInterval() / 1000));
+        return jdbcTemplate;
+    }
+    
+    // With open-in-view the session outlives the transaction, so its cache mode
+    // is put back once the transaction is done
+    private static void readCacheOnly() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                Session session = holder.getEntityManager().unwrap(Session.class);
+                CacheMode previous = session.getCacheMode();
+                session.setCacheMode(CacheMode.GET);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (session.isOpen()) {
+                            session.setCacheMode(previous);
+                        }
+                    }
+                });
+            }
+        }
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+    
+    private final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        
+        // Unreachable until the first check succeeds
+        private volatile long lagMs = -1;
+        
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = jdbcTemplate(dataSource);
+        }
+    }
+}
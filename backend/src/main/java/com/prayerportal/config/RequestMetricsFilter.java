@@ -0,0 +1,110 @@
+package com.prayerportal.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Records how many SQL statements each request issued, tagged with the same
+// uri and outcome as http.server.requests. Runs outside the security chain so
+// the user lookup during authentication is counted too. Summaries are created
+// once per uri and outcome and reused, so a request allocates no meters. The
+// same span is emitted as an EndpointEvent while a recording or the hot method
+// profiler has it enabled; otherwise no event is created.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    static final String QUERIES_METRIC = "http.server.requests.queries";
+    
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    private static final EventType ENDPOINT_EVENT = EventType.getEventType(EndpointEvent.class);
+    
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, DistributionSummary[]> summaries = new ConcurrentHashMap<>();
+    
+    // Only present under the querybudget profile
+    @Autowired(required = false)
+    private QueryBudgetMonitor queryBudgetMonitor;
+    
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointEvent event = null;
+        if (ENDPOINT_EVENT.isEnabled()) {
+            event = new EndpointEvent();
+            event.begin();
+        }
+        QueryCountInspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = QueryCountInspector.stop();
+            String uri = uri(request, response);
+            summary(uri, Outcome.forStatus(response.getStatus())).record(statements);
+            if (queryBudgetMonitor != null) {
+                queryBudgetMonitor.check(request, uri, statements);
+            }
+            if (event != null && event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.uri = uri;
+                event.commit();
+            }
+        }
+    }
+    
+    private DistributionSummary summary(String uri, Outcome outcome) {
+        DistributionSummary[] byOutcome = summaries.get(uri);
+        if (byOutcome == null) {
+            byOutcome = summaries.computeIfAbsent(uri, key -> new DistributionSummary[OUTCOMES.length]);
+        }
+        
+        DistributionSummary summary = byOutcome[outcome.ordinal()];
+        if (summary == null) {
+            // Racing threads get the same meter back from the registry
+            summary = DistributionSummary.builder(QUERIES_METRIC)
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .tag("outcome", outcome.name())
+                .register(registry);
+            byOutcome[outcome.ordinal()] = summary;
+        }
+        return summary;
+    }
+    
+    // Matches the uri tag Spring puts on http.server.requests, so unmatched
+    // paths collapse into a few values instead of one series per raw path
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof String uri) {
+            return uri;
+        }
+        
+        int status = response.getStatus();
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        return "UNKNOWN";
+    }
+}
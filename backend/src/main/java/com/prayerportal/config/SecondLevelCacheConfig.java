@@ -0,0 +1,63 @@
+package com.prayerportal.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Builds the Caffeine-backed JCache regions used by Hibernate's second-level
+// cache, one per entry under app.cache.regions, and hands the manager to
+// Hibernate so it never creates regions with provider defaults.
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of its own: the provider's default one is shared by the whole
+        // JVM, where a second application context (e.g. in tests) would find
+        // these regions already created
+        URI uri = URI.create("hibernate-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+        
+        properties.getRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = baseConfiguration();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            if (region.getTtl() > 0) {
+                configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(region.getTtl())));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        
+        // Query results are checked against these timestamps, so they must
+        // outlive every cached query and can never be evicted early
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, baseConfiguration());
+        
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+    
+    private static CaffeineConfiguration<Object, Object> baseConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches disassembled state, so copying on every read and write buys nothing
+        configuration.setStoreByValue(false);
+        // Caffeine's own counters are the only source of eviction counts
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
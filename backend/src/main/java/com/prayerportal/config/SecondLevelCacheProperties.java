@@ -0,0 +1,31 @@
+package com.prayerportal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class SecondLevelCacheProperties {
+    // One entry per Hibernate cache region, keyed by region name. Regions that
+    // are not listed here fail startup rather than silently running unbounded.
+    private Map<String, Region> regions = new LinkedHashMap<>();
+    
+    public Map<String, Region> getRegions() { return regions; }
+    public void setRegions(Map<String, Region> regions) { this.regions = regions; }
+    
+    public static class Region {
+        private long maxSize = 10000;
+        
+        // Milliseconds since the entry was written; 0 keeps entries until evicted by size
+        private long ttl = 0;
+        
+        public long getMaxSize() { return maxSize; }
+        public void setMaxSize(long maxSize) { this.maxSize = maxSize; }
+        
+        public long getTtl() { return ttl; }
+        public void setTtl(long ttl) { this.ttl = ttl; }
+    }
+}
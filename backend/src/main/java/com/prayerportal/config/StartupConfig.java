@@ -0,0 +1,50 @@
+package com.prayerportal.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+
+// Which beans stay eager when spring.main.lazy-initialization is on (the
+// faststart profile). Everything else is created on first use. Kept eager:
+// beans with @Scheduled methods, which are only scheduled once created; beans
+// with @PostConstruct, which start something; and the public API controllers,
+// so the first user request does not pay for building its service graph.
+// Admin controllers, and whatever only they use, stay lazy.
+@Configuration
+public class StartupConfig {
+    
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return (beanName, beanDefinition, beanType) -> {
+            if (beanType == null) {
+                return false;
+            }
+            
+            Class<?> type = ClassUtils.getUserClass(beanType);
+            if (AnnotatedElementUtils.hasAnnotation(type, RestController.class)) {
+                RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(type, RequestMapping.class);
+                return mapping == null || mapping.path().length == 0 || !mapping.path()[0].startsWith("/admin");
+            }
+            
+            if (!type.getName().startsWith("com.prayerportal.")) {
+                return false;
+            }
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+                if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ||
+                    method.isAnnotationPresent(PostConstruct.class)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
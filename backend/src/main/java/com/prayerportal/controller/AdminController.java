@@ -1,19 +1,50 @@
 package com.prayerportal.controller;
 
+import com.prayerportal.dto.BulkModerationRequest;
 import com.prayerportal.dto.MessageResponse;
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.ActivityType;
+import com.prayerportal.event.PrayerRequestChangedEvent;
 import com.prayerportal.model.*;
 import com.prayerportal.repository.*;
+import com.prayerportal.security.services.UserDetailsImpl;
+import com.prayerportal.service.ActivityRollupService;
+import com.prayerportal.service.AnalyticsService;
+import com.prayerportal.service.DiagnosticsService;
+import com.prayerportal.service.DigestService;
+import com.prayerportal.service.ExportService;
+import com.prayerportal.service.HotMethodProfiler;
+import com.prayerportal.service.BlobTooLargeException;
+import com.prayerportal.service.ResourceAttachmentService;
+import com.prayerportal.service.ResourceCacheService;
+import com.prayerportal.service.ResourceVariantService;
+import com.prayerportal.service.ModerationService;
+import com.prayerportal.service.PurgeService;
+import com.prayerportal.service.SecondLevelCacheService;
+import com.prayerportal.service.OutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -37,35 +68,197 @@ public class AdminController {
     @Autowired
     private ResourceRepository resourceRepository;
     
+    @Autowired
+    private PurgeJobRepository purgeJobRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private DigestService digestService;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private ActivityRollupService activityRollupService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PurgeService purgeService;
+    
+    @Autowired
+    private ModerationService moderationService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ResourceCacheService resourceCacheService;
+    
+    @Autowired
+    private ResourceVariantService resourceVariantService;
+    
+    @Autowired
+    private ResourceAttachmentService resourceAttachmentService;
+    
+    @Autowired
+    private SecondLevelCacheService secondLevelCacheService;
+    
+    @Autowired
+    private DiagnosticsService diagnosticsService;
+    
+    // Absent when app.diagnostics.hot-methods.enabled is off
+    @Autowired(required = false)
+    private HotMethodProfiler hotMethodProfiler;
+    
     @GetMapping("/analytics")
     public ResponseEntity<Map<String, Object>> getAnalytics() {
-        Map<String, Object> analytics = new HashMap<>();
+        return ResponseEntity.ok(analyticsService.getSnapshot());
+    }
+    
+    @GetMapping("/analytics/timeseries")
+    public ResponseEntity<?> getAnalyticsTimeseries(
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         
-        // User statistics
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByEnabledTrue();
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from 
+                : granularity == RollupGranularity.HOUR ? end.minusHours(47) : end.minusDays(29);
         
-        // Prayer request statistics
-        long totalPrayerRequests = prayerRequestRepository.count();
-        long activePrayerRequests = prayerRequestRepository.countByIsAnsweredFalse();
-        long publicPrayerRequests = prayerRequestRepository.countPublicRequests();
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("from must not be after to"));
+        }
         
-        // Recent activity (last 30 days)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        long recentPrayerRequests = prayerRequestRepository.countByCreatedAtAfter(thirtyDaysAgo);
+        try {
+            return ResponseEntity.ok(activityRollupService.getTimeseries(granularity, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/analytics/active-users")
+    public ResponseEntity<Map<String, Object>> getActiveUsers() {
+        return ResponseEntity.ok(activityRollupService.getActiveUsers());
+    }
+    
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxService.getStats());
+    }
+    
+    @PostMapping("/outbox/retry-failed")
+    public ResponseEntity<?> retryFailedOutboxEvents() {
+        int requeued = outboxService.requeueFailed();
+        return ResponseEntity.ok(new MessageResponse(requeued + " failed events requeued"));
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheService.getStats());
+    }
+    
+    @DeleteMapping("/cache")
+    public ResponseEntity<?> evictCache(@RequestParam(required = false) String region) {
+        if (!secondLevelCacheService.evict(region)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new MessageResponse(region != null ? "Cache region " + region + " evicted" 
+                                                                    : "All cache regions evicted"));
+    }
+    
+    @GetMapping("/diagnostics/recordings")
+    public ResponseEntity<List<Map<String, Object>>> getRecordings() {
+        return ResponseEntity.ok(diagnosticsService.list());
+    }
+    
+    @PostMapping("/diagnostics/recordings")
+    public ResponseEntity<?> startRecording(@RequestParam(defaultValue = "60000") long duration,
+                                            @RequestParam(defaultValue = "profile") String settings) 
+            throws IOException {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(diagnosticsService.start(duration, settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/diagnostics/recordings/{id}/stop")
+    public ResponseEntity<Map<String, Object>> stopRecording(@PathVariable long id) {
+        Map<String, Object> recording = diagnosticsService.stop(id);
+        return recording != null ? ResponseEntity.ok(recording) : ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/diagnostics/recordings/{id}/file")
+    public ResponseEntity<?> downloadRecording(@PathVariable long id) throws IOException {
+        Optional<Path> file = diagnosticsService.getFile(id);
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("No stopped recording " + id));
+        }
         
-        // Group statistics
-        long totalGroups = groupRepository.count();
+        Path path = file.get();
+        StreamingResponseBody body = out -> Files.copy(path, out);
         
-        analytics.put("totalUsers", totalUsers);
-        analytics.put("activeUsers", activeUsers);
-        analytics.put("totalPrayerRequests", totalPrayerRequests);
-        analytics.put("activePrayerRequests", activePrayerRequests);
-        analytics.put("publicPrayerRequests", publicPrayerRequests);
-        analytics.put("recentPrayerRequests", recentPrayerRequests);
-        analytics.put("totalGroups", totalGroups);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(path))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + path.getFileName() + "\"")
+                .body(body);
+    }
+    
+    @DeleteMapping("/diagnostics/recordings/{id}")
+    public ResponseEntity<?> deleteRecording(@PathVariable long id) throws IOException {
+        if (!diagnosticsService.delete(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new MessageResponse("Recording " + id + " deleted"));
+    }
+    
+    @PostMapping("/diagnostics/summary")
+    public ResponseEntity<?> captureDiagnosticsSummary(@RequestParam(defaultValue = "30000") long window,
+                                                       @RequestParam(defaultValue = "20") int limit) 
+            throws IOException, InterruptedException {
+        try {
+            return ResponseEntity.ok(diagnosticsService.summarize(window, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/diagnostics/hot-methods")
+    public ResponseEntity<?> getHotMethods(@RequestParam(defaultValue = "10") int limit) {
+        if (hotMethodProfiler == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new MessageResponse("Hot method profiling is disabled"));
+        }
+        return ResponseEntity.ok(hotMethodProfiler.getReport(limit));
+    }
+    
+    @DeleteMapping("/diagnostics/hot-methods")
+    public ResponseEntity<?> resetHotMethods() {
+        if (hotMethodProfiler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        hotMethodProfiler.reset();
+        return ResponseEntity.ok(new MessageResponse("Hot method profile reset"));
+    }
+    
+    @PostMapping("/digests/{frequency}/send")
+    public ResponseEntity<?> sendDigests(@PathVariable DigestFrequency frequency) {
+        if (frequency == DigestFrequency.NONE) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Choose DAILY or WEEKLY"));
+        }
         
-        return ResponseEntity.ok(analytics);
+        digestService.triggerDigests(frequency);
+        return ResponseEntity.accepted().body(new MessageResponse(frequency + " digest run started"));
     }
     
     @GetMapping("/users")
@@ -97,11 +290,88 @@ public class AdminController {
         User user = userOpt.get();
         user.setEnabled(!user.isEnabled());
         userRepository.save(user);
+        eventPublisher.publishEvent(new ActivityEvent(user.isEnabled() ? ActivityType.USER_ENABLED : ActivityType.USER_DISABLED,
+                                                      user.getId()));
         
         String status = user.isEnabled() ? "enabled" : "disabled";
         return ResponseEntity.ok(new MessageResponse("User " + status + " successfully"));
     }
     
+    @DeleteMapping("/users/{id}")
+    public ResponseEntity<?> deleteUser(@PathVariable Long id, Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Optional<User> userOpt = userRepository.findById(id);
+        
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (id.equals(userDetails.getId())) {
+            return ResponseEntity.badRequest().body(new MessageResponse("You cannot delete your own account"));
+        }
+        
+        long ledGroups = groupRepository.countByLeaderId(id);
+        if (ledGroups > 0) {
+            return ResponseEntity.badRequest().body(new MessageResponse(
+                    "User leads " + ledGroups + " group(s). Transfer leadership or delete the groups first."));
+        }
+        
+        // Deleted users are hidden from findById, so this is the first delete
+        User user = userOpt.get();
+        PurgeJob job = purgeService.deleteUser(id);
+        
+        if (user.isEnabled()) {
+            eventPublisher.publishEvent(new ActivityEvent(ActivityType.USER_DISABLED, id));
+        }
+        eventPublisher.publishEvent(new ActivityEvent(ActivityType.USER_DELETED, id));
+        
+        return ResponseEntity.accepted().body(job);
+    }
+    
+    @GetMapping("/export/{dataset}")
+    public ResponseEntity<?> exportData(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        ExportService.Dataset exportDataset = ExportService.Dataset.fromSlug(dataset);
+        ExportService.Format exportFormat = ExportService.parseFormat(format);
+        
+        if (exportDataset == null || exportFormat == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse(
+                    "Unknown export; datasets are users, prayer-requests and comments, formats csv and ndjson"));
+        }
+        
+        String filename = exportDataset.getSlug() + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+        StreamingResponseBody body = out -> exportService.export(exportDataset, exportFormat, from, to, out);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+    
+    @GetMapping("/purge-jobs")
+    public ResponseEntity<Page<PurgeJob>> getPurgeJobs(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) PurgeStatus status) {
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<PurgeJob> jobs = status != null 
+                ? purgeJobRepository.findByStatus(status, pageable) 
+                : purgeJobRepository.findAll(pageable);
+        
+        return ResponseEntity.ok(jobs);
+    }
+    
+    @GetMapping("/purge-jobs/{id}")
+    public ResponseEntity<PurgeJob> getPurgeJob(@PathVariable Long id) {
+        PurgeJob job = purgeService.getJob(id);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+    
     @PatchMapping("/users/{id}/role")
     public ResponseEntity<?> updateUserRole(@PathVariable Long id, @RequestBody Role role) {
         Optional<User> userOpt = userRepository.findById(id);
@@ -144,10 +414,29 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         
-        prayerRequestRepository.delete(prayerRequestOpt.get());
+        purgeService.deletePrayerRequest(id);
+        eventPublisher.publishEvent(new PrayerRequestChangedEvent(PrayerRequestChangedEvent.State.of(prayerRequestOpt.get()), null));
         return ResponseEntity.ok(new MessageResponse("Prayer request deleted successfully"));
     }
     
+    @PostMapping("/moderation/prayer-requests/delete")
+    public ResponseEntity<?> bulkDeletePrayerRequests(@RequestBody BulkModerationRequest request,
+                                                      Authentication authentication) {
+        return startModeration(ModerationTarget.PRAYER_REQUEST, request, authentication);
+    }
+    
+    @PostMapping("/moderation/comments/delete")
+    public ResponseEntity<?> bulkDeleteComments(@RequestBody BulkModerationRequest request,
+                                                Authentication authentication) {
+        return startModeration(ModerationTarget.COMMENT, request, authentication);
+    }
+    
+    @GetMapping("/moderation/jobs/{id}")
+    public ResponseEntity<ModerationJob> getModerationJob(@PathVariable Long id) {
+        ModerationJob job = moderationService.getJob(id);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+    
     @DeleteMapping("/comments/{id}")
     public ResponseEntity<?> deleteComment(@PathVariable Long id) {
         Optional<Comment> commentOpt = commentRepository.findById(id);
@@ -156,13 +445,15 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         
-        commentRepository.delete(commentOpt.get());
+        // Hidden like bulk-moderated comments; PurgeService removes the row
+        commentRepository.softDelete(id, LocalDateTime.now());
         return ResponseEntity.ok(new MessageResponse("Comment deleted successfully"));
     }
     
     @PostMapping("/resources")
     public ResponseEntity<?> createResource(@RequestBody Resource resource) {
-        Resource savedResource = resourceRepository.save(resource);
+        Resource savedResource = resourceVariantService.save(resource);
+        resourceCacheService.invalidate();
         return ResponseEntity.ok(savedResource);
     }
     
@@ -181,7 +472,8 @@ public class AdminController {
         resource.setAuthor(resourceData.getAuthor());
         resource.setActive(resourceData.isActive());
         
-        Resource updatedResource = resourceRepository.save(resource);
+        Resource updatedResource = resourceVariantService.save(resource);
+        resourceCacheService.invalidate();
         return ResponseEntity.ok(updatedResource);
     }
     
@@ -193,10 +485,45 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         
+        resourceAttachmentService.deleteAll(id);
+        resourceVariantService.delete(id);
         resourceRepository.delete(resourceOpt.get());
+        resourceCacheService.invalidate();
         return ResponseEntity.ok(new MessageResponse("Resource deleted successfully"));
     }
     
+    // The file is the raw request body, streamed to the blob store as it arrives
+    @PostMapping("/resources/{id}/attachments")
+    public ResponseEntity<?> uploadAttachment(@PathVariable Long id,
+                                              @RequestParam String filename,
+                                              HttpServletRequest request) throws IOException {
+        if (!resourceRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        try {
+            ResourceAttachment attachment = resourceAttachmentService.upload(id, filename, request.getContentType(),
+                                                                             request.getInputStream());
+            return ResponseEntity.ok(attachment);
+        } catch (BlobTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/resources/{id}/attachments/{attachmentId}")
+    public ResponseEntity<?> deleteAttachment(@PathVariable Long id, @PathVariable Long attachmentId) {
+        Optional<ResourceAttachment> attachment = resourceAttachmentService.find(id, attachmentId);
+        
+        if (attachment.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        resourceAttachmentService.delete(attachment.get());
+        return ResponseEntity.ok(new MessageResponse("Attachment deleted successfully"));
+    }
+    
     @GetMapping("/resources")
     public ResponseEntity<Page<Resource>> getAllResourcesAdmin(
             @RequestParam(defaultValue = "0") int page,
@@ -207,4 +534,24 @@ public class AdminController {
         
         return ResponseEntity.ok(resources);
     }
+    
+    // Small id lists are handled inline; filters and large lists run in the background
+    private ResponseEntity<?> startModeration(ModerationTarget target, BulkModerationRequest request,
+                                              Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        ModerationJob job;
+        
+        try {
+            job = moderationService.createJob(target, request, userDetails.getId());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+        
+        if (moderationService.isInline(request)) {
+            return ResponseEntity.ok(moderationService.run(job.getId(), request));
+        }
+        
+        moderationService.runAsync(job.getId(), request);
+        return ResponseEntity.accepted().body(job);
+    }
 }
\ No newline at end of file
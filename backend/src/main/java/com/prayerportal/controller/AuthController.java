@@ -4,13 +4,17 @@ import com.prayerportal.dto.JwtResponse;
 import com.prayerportal.dto.LoginRequest;
 import com.prayerportal.dto.MessageResponse;
 import com.prayerportal.dto.SignUpRequest;
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.ActivityType;
 import com.prayerportal.model.Role;
 import com.prayerportal.model.User;
 import com.prayerportal.repository.UserRepository;
 import com.prayerportal.security.jwt.JwtUtils;
 import com.prayerportal.security.services.UserDetailsImpl;
+import com.prayerportal.service.ActivityRollupService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -37,6 +41,12 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
     
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    ActivityRollupService activityRollupService;
+    
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -54,6 +64,7 @@ public class AuthController {
             user.setLastLoginAt(LocalDateTime.now());
             userRepository.save(user);
         }
+        activityRollupService.recordActiveUser(userDetails.getId());
         
         return ResponseEntity.ok(new JwtResponse(jwt,
                                                userDetails.getId(),
@@ -66,12 +77,12 @@ public class AuthController {
     
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+        if (userRepository.isUsernameTaken(signUpRequest.getUsername())) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: Username is already taken!"));
         }
         
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (userRepository.isEmailTaken(signUpRequest.getEmail())) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: Email is already in use!"));
         }
@@ -85,6 +96,7 @@ public class AuthController {
         
         user.setRole(Role.USER);
         userRepository.save(user);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityType.USER_REGISTERED, user.getId()));
         
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
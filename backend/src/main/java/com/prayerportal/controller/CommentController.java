@@ -1,6 +1,9 @@
 package com.prayerportal.controller;
 
+import com.prayerportal.config.QueryBudget;
 import com.prayerportal.dto.CommentDto;
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.ActivityType;
 import com.prayerportal.dto.MessageResponse;
 import com.prayerportal.model.*;
 import com.prayerportal.repository.CommentRepository;
@@ -10,15 +13,19 @@ import com.prayerportal.security.services.UserDetailsImpl;
 import com.prayerportal.service.NotificationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -37,7 +44,11 @@ public class CommentController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @GetMapping("/prayer-request/{prayerRequestId}")
+    @QueryBudget(6)
     public ResponseEntity<Page<Comment>> getCommentsByPrayerRequest(
             @PathVariable Long prayerRequestId,
             @RequestParam(defaultValue = "0") int page,
@@ -51,6 +62,7 @@ public class CommentController {
     
     @PostMapping("/prayer-request/{prayerRequestId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<?> createComment(@PathVariable Long prayerRequestId,
                                          @Valid @RequestBody CommentDto commentDto,
                                          Authentication authentication) {
@@ -70,6 +82,7 @@ public class CommentController {
         comment.setPrayerRequest(prayerRequest);
         
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityType.COMMENT_CREATED, user.getId()));
         
         // Send notification to the prayer request author
         if (!prayerRequest.getAuthor().getId().equals(user.getId())) {
@@ -100,7 +113,7 @@ public class CommentController {
         // Check if user owns the comment or is admin
         if (!comment.getAuthor().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
         comment.setContent(commentDto.getContent());
@@ -124,10 +137,11 @@ public class CommentController {
         // Check if user owns the comment or is admin
         if (!comment.getAuthor().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        commentRepository.delete(comment);
+        // Hidden like bulk-moderated comments; PurgeService removes the row
+        commentRepository.softDelete(id, LocalDateTime.now());
         return ResponseEntity.ok(new MessageResponse("Comment deleted successfully"));
     }
 }
\ No newline at end of file
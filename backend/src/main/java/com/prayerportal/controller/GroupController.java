@@ -1,7 +1,12 @@
 package com.prayerportal.controller;
 
+import com.prayerportal.config.QueryBudget;
 import com.prayerportal.dto.GroupDto;
+import com.prayerportal.dto.GroupMemberSummary;
+import com.prayerportal.dto.GroupSummary;
 import com.prayerportal.dto.MessageResponse;
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.ActivityType;
 import com.prayerportal.model.Group;
 import com.prayerportal.model.PrayerRequest;
 import com.prayerportal.model.User;
@@ -9,17 +14,24 @@ import com.prayerportal.repository.GroupRepository;
 import com.prayerportal.repository.PrayerRequestRepository;
 import com.prayerportal.repository.UserRepository;
 import com.prayerportal.security.services.UserDetailsImpl;
+import com.prayerportal.service.GroupMembershipService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -35,20 +47,27 @@ public class GroupController {
     @Autowired
     private PrayerRequestRepository prayerRequestRepository;
     
+    @Autowired
+    private GroupMembershipService groupMembershipService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<Group>> getAllGroups(
+    @QueryBudget(4)
+    public ResponseEntity<Page<GroupSummary>> getAllGroups(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         
-        Page<Group> groups;
+        Page<GroupSummary> groups;
         if (search != null && !search.trim().isEmpty()) {
-            groups = groupRepository.findBySearchTerm(search, pageable);
+            groups = groupRepository.findSummariesBySearchTerm(search, pageable);
         } else {
-            groups = groupRepository.findAll(pageable);
+            groups = groupRepository.findSummaries(pageable);
         }
         
         return ResponseEntity.ok(groups);
@@ -56,27 +75,52 @@ public class GroupController {
     
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @QueryBudget(3)
     public ResponseEntity<Group> getGroupById(@PathVariable Long id) {
         Optional<Group> group = groupRepository.findById(id);
         return group.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/{id}/members")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @QueryBudget(4)
+    public ResponseEntity<?> getGroupMembers(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        if (!groupRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        int pageSize = Math.max(1, Math.min(size, 200));
+        List<GroupMemberSummary> members = groupRepository.findMembersAfter(id, afterId, PageRequest.of(0, pageSize));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("members", members);
+        response.put("nextCursor", members.size() == pageSize ? members.get(members.size() - 1).getId() : null);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/my-groups")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<Group>> getMyGroups(
+    @QueryBudget(4)
+    public ResponseEntity<Page<GroupSummary>> getMyGroups(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Group> groups = groupRepository.findByMemberId(userDetails.getId(), pageable);
+        Page<GroupSummary> groups = groupRepository.findSummariesByMemberId(userDetails.getId(), pageable);
         
         return ResponseEntity.ok(groups);
     }
     
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<?> createGroup(@Valid @RequestBody GroupDto groupDto,
                                        Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -95,10 +139,14 @@ public class GroupController {
         group.setDescription(groupDto.getDescription());
         group.setLeader(user);
         
+        Group savedGroup = groupRepository.save(group);
+        
         // Add creator as a member
-        group.addMember(user);
+        if (groupMembershipService.join(savedGroup.getId(), user.getId())) {
+            savedGroup.setMemberCount(1);
+        }
+        eventPublisher.publishEvent(new ActivityEvent(ActivityType.GROUP_CREATED, user.getId()));
         
-        Group savedGroup = groupRepository.save(group);
         return ResponseEntity.ok(savedGroup);
     }
     
@@ -119,7 +167,7 @@ public class GroupController {
         // Check if user is the leader or admin
         if (!group.getLeader().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
         group.setName(groupDto.getName());
@@ -133,22 +181,15 @@ public class GroupController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> joinGroup(@PathVariable Long id, Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User user = userRepository.findById(userDetails.getId()).orElse(null);
-        Optional<Group> groupOpt = groupRepository.findById(id);
         
-        if (user == null || groupOpt.isEmpty()) {
+        if (!groupRepository.existsById(id)) {
             return ResponseEntity.badRequest().body(new MessageResponse("User or Group not found"));
         }
         
-        Group group = groupOpt.get();
-        
-        if (group.getMembers().contains(user)) {
+        if (!groupMembershipService.join(id, userDetails.getId())) {
             return ResponseEntity.badRequest().body(new MessageResponse("User is already a member of this group"));
         }
         
-        group.addMember(user);
-        groupRepository.save(group);
-        
         return ResponseEntity.ok(new MessageResponse("Successfully joined the group"));
     }
     
@@ -156,32 +197,29 @@ public class GroupController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> leaveGroup(@PathVariable Long id, Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User user = userRepository.findById(userDetails.getId()).orElse(null);
         Optional<Group> groupOpt = groupRepository.findById(id);
         
-        if (user == null || groupOpt.isEmpty()) {
+        if (groupOpt.isEmpty()) {
             return ResponseEntity.badRequest().body(new MessageResponse("User or Group not found"));
         }
         
         Group group = groupOpt.get();
         
-        if (!group.getMembers().contains(user)) {
-            return ResponseEntity.badRequest().body(new MessageResponse("User is not a member of this group"));
-        }
-        
         // Don't allow leader to leave unless they transfer leadership
-        if (group.getLeader().getId().equals(user.getId())) {
+        if (group.getLeader().getId().equals(userDetails.getId())) {
             return ResponseEntity.badRequest().body(new MessageResponse("Group leader cannot leave. Please transfer leadership first."));
         }
         
-        group.removeMember(user);
-        groupRepository.save(group);
+        if (!groupMembershipService.leave(id, userDetails.getId())) {
+            return ResponseEntity.badRequest().body(new MessageResponse("User is not a member of this group"));
+        }
         
         return ResponseEntity.ok(new MessageResponse("Successfully left the group"));
     }
     
     @GetMapping("/{id}/prayers")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @QueryBudget(8)
     public ResponseEntity<Page<PrayerRequest>> getGroupPrayers(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
@@ -189,17 +227,14 @@ public class GroupController {
             Authentication authentication) {
         
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        Optional<Group> groupOpt = groupRepository.findById(id);
         
-        if (groupOpt.isEmpty()) {
+        if (!groupRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
         
-        Group group = groupOpt.get();
-        
         // Check if user is a member of the group
-        if (!group.getMembers().stream().anyMatch(member -> member.getId().equals(userDetails.getId()))) {
-            return ResponseEntity.forbidden().build();
+        if (!groupMembershipService.isMember(id, userDetails.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
@@ -223,10 +258,12 @@ public class GroupController {
         // Check if user is the leader or admin
         if (!group.getLeader().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
         groupRepository.delete(group);
+        groupMembershipService.evict(id);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityType.GROUP_DELETED, userDetails.getId()));
         return ResponseEntity.ok(new MessageResponse("Group deleted successfully"));
     }
 }
\ No newline at end of file
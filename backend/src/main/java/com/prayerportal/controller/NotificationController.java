@@ -6,14 +6,18 @@ import com.prayerportal.model.User;
 import com.prayerportal.repository.NotificationRepository;
 import com.prayerportal.repository.UserRepository;
 import com.prayerportal.security.services.UserDetailsImpl;
+import com.prayerportal.service.NotificationPushService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
 
@@ -27,6 +31,9 @@ public class NotificationController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Page<Notification>> getMyNotifications(
@@ -47,6 +54,15 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
     
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return notificationPushService.subscribe(userDetails.getId(), lastEventId);
+    }
+    
     @GetMapping("/unread-count")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Long> getUnreadCount(Authentication authentication) {
@@ -75,7 +91,7 @@ public class NotificationController {
         
         // Check if user owns the notification
         if (!notification.getUser().getId().equals(userDetails.getId())) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
         notification.setRead(true);
@@ -2,19 +2,27 @@ package com.prayerportal.controller;
 
 import com.prayerportal.dto.MessageResponse;
 import com.prayerportal.dto.PrayerRequestDto;
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.ActivityType;
+import com.prayerportal.event.PrayerRequestChangedEvent;
 import com.prayerportal.model.*;
 import com.prayerportal.repository.*;
 import com.prayerportal.security.services.UserDetailsImpl;
+import com.prayerportal.service.GroupMembershipService;
 import com.prayerportal.service.NotificationService;
+import com.prayerportal.service.PurgeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -39,6 +47,15 @@ public class PrayerRequestController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private GroupMembershipService groupMembershipService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PurgeService purgeService;
+    
     @GetMapping
     public ResponseEntity<Page<PrayerRequest>> getAllPrayerRequests(
             @RequestParam(defaultValue = "0") int page,
@@ -80,7 +97,7 @@ public class PrayerRequestController {
         
         // Check visibility permissions
         if (!canUserViewPrayerRequest(request, userDetails.getId())) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
         return ResponseEntity.ok(request);
@@ -107,13 +124,14 @@ public class PrayerRequestController {
         // Handle group assignment
         if (prayerRequestDto.getGroupId() != null) {
             Optional<Group> group = groupRepository.findById(prayerRequestDto.getGroupId());
-            if (group.isPresent() && group.get().getMembers().contains(user)) {
+            if (group.isPresent() && groupMembershipService.isMember(group.get().getId(), user.getId())) {
                 prayerRequest.setGroup(group.get());
                 prayerRequest.setVisibility(Visibility.GROUP_ONLY);
             }
         }
         
         PrayerRequest savedRequest = prayerRequestRepository.save(prayerRequest);
+        eventPublisher.publishEvent(new PrayerRequestChangedEvent(null, PrayerRequestChangedEvent.State.of(savedRequest)));
         return ResponseEntity.ok(savedRequest);
     }
     
@@ -134,9 +152,10 @@ public class PrayerRequestController {
         // Check if user owns the prayer request or is admin
         if (!prayerRequest.getAuthor().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
+        PrayerRequestChangedEvent.State before = PrayerRequestChangedEvent.State.of(prayerRequest);
         prayerRequest.setTitle(prayerRequestDto.getTitle());
         prayerRequest.setDescription(prayerRequestDto.getDescription());
         prayerRequest.setVisibility(prayerRequestDto.getVisibility());
@@ -144,11 +163,13 @@ public class PrayerRequestController {
         prayerRequest.setUpdatedAt(LocalDateTime.now());
         
         PrayerRequest updatedRequest = prayerRequestRepository.save(prayerRequest);
+        eventPublisher.publishEvent(new PrayerRequestChangedEvent(before, PrayerRequestChangedEvent.State.of(updatedRequest)));
         return ResponseEntity.ok(updatedRequest);
     }
     
     @PostMapping("/{id}/pray")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<?> prayForRequest(@PathVariable Long id, Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         User user = userRepository.findById(userDetails.getId()).orElse(null);
@@ -172,6 +193,7 @@ public class PrayerRequestController {
         // Update prayer count
         prayerRequest.setPrayedForCount(prayerRequest.getPrayedForCount() + 1);
         prayerRequestRepository.save(prayerRequest);
+        eventPublisher.publishEvent(new ActivityEvent(ActivityType.PRAYER_OFFERED, user.getId()));
         
         // Send notification to the author
         if (!prayerRequest.getAuthor().getId().equals(user.getId())) {
@@ -202,14 +224,16 @@ public class PrayerRequestController {
         // Check if user owns the prayer request or is admin
         if (!prayerRequest.getAuthor().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
+        PrayerRequestChangedEvent.State before = PrayerRequestChangedEvent.State.of(prayerRequest);
         prayerRequest.setAnswered(true);
         prayerRequest.setAnsweredDescription(answeredDescription);
         prayerRequest.setAnsweredAt(LocalDateTime.now());
         
         PrayerRequest updatedRequest = prayerRequestRepository.save(prayerRequest);
+        eventPublisher.publishEvent(new PrayerRequestChangedEvent(before, PrayerRequestChangedEvent.State.of(updatedRequest)));
         return ResponseEntity.ok(updatedRequest);
     }
     
@@ -259,10 +283,12 @@ public class PrayerRequestController {
         // Check if user owns the prayer request or is admin
         if (!prayerRequest.getAuthor().getId().equals(userDetails.getId()) && 
             !userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return ResponseEntity.forbidden().build();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        prayerRequestRepository.delete(prayerRequest);
+        // Hidden right away; comments and prayers are purged in the background
+        purgeService.deletePrayerRequest(prayerRequest.getId());
+        eventPublisher.publishEvent(new PrayerRequestChangedEvent(PrayerRequestChangedEvent.State.of(prayerRequest), null));
         return ResponseEntity.ok(new MessageResponse("Prayer request deleted successfully"));
     }
     
@@ -274,8 +300,7 @@ public class PrayerRequestController {
                 return request.getAuthor().getId().equals(userId);
             case GROUP_ONLY:
                 return request.getGroup() != null && 
-                       request.getGroup().getMembers().stream()
-                           .anyMatch(member -> member.getId().equals(userId));
+                       groupMembershipService.isMember(request.getGroup().getId(), userId);
             case ADMIN_ONLY:
                 // This would need admin role check, simplified for now
                 return request.getAuthor().getId().equals(userId);
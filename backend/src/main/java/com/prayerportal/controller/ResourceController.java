@@ -2,15 +2,25 @@ package com.prayerportal.controller;
 
 import com.prayerportal.model.Resource;
 import com.prayerportal.model.ResourceType;
-import com.prayerportal.repository.ResourceRepository;
+import com.prayerportal.model.ResourceAttachment;
+import com.prayerportal.model.ResourceVariant;
+import com.prayerportal.service.ResourceAttachmentService;
+import com.prayerportal.service.ResourceCacheService;
+import com.prayerportal.service.ResourceVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -18,38 +28,106 @@ import java.util.Optional;
 @RequestMapping("/resources")
 public class ResourceController {
     @Autowired
-    private ResourceRepository resourceRepository;
+    private ResourceCacheService resourceCacheService;
     
+    @Autowired
+    private ResourceAttachmentService resourceAttachmentService;
+    
+    @Value("${app.resources.variants.max-age:86400}")
+    private long variantMaxAgeSeconds;
+    
+    // Served from the resource cache; only admin writes touch the database
     @GetMapping
-    public ResponseEntity<Page<Resource>> getAllResources(
+    public ResponseEntity<?> getAllResources(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) ResourceType type,
             @RequestParam(required = false) String search) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        if (search == null || search.trim().isEmpty()) {
+            byte[] rendered = resourceCacheService.findRenderedPage(type, page, size);
+            if (rendered != null) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(rendered);
+            }
+        }
+        
+        return ResponseEntity.ok(resourceCacheService.findPage(type, search, page, size));
+    }
+    
+    // Answered with the body stored for the negotiated encoding, never compressed per request
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getResourceById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        Optional<Resource> resource = resourceCacheService.findById(id);
+        if (resource.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
         
-        Page<Resource> resources;
+        ResourceVariant variant = resourceCacheService.findVariant(id, ResourceVariantService.negotiate(acceptEncoding));
+        if (variant == null) {
+            return ResponseEntity.ok(resource.get());
+        }
         
-        if (search != null && !search.trim().isEmpty()) {
-            resources = resourceRepository.searchActiveResources(search, pageable);
-        } else if (type != null) {
-            resources = resourceRepository.findByTypeAndIsActiveTrue(type, pageable);
-        } else {
-            resources = resourceRepository.findByIsActiveTrueOrderByCreatedAtDesc(pageable);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(variantMaxAgeSeconds)).cachePublic();
+        if (matches(ifNoneMatch, variant.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(variant.getEtag())
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
         }
         
-        return ResponseEntity.ok(resources);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(variant.getEtag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!ResourceVariant.IDENTITY.equals(variant.getEncoding())) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.getEncoding());
+        }
+        return response.body(variant.getBody());
     }
     
-    @GetMapping("/{id}")
-    public ResponseEntity<Resource> getResourceById(@PathVariable Long id) {
-        Optional<Resource> resource = resourceRepository.findById(id);
-        return resource.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    @GetMapping("/{id}/attachments")
+    public ResponseEntity<List<ResourceAttachment>> getAttachments(@PathVariable Long id) {
+        if (resourceCacheService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(resourceAttachmentService.findByResourceId(id));
+    }
+    
+    @RequestMapping(value = "/{id}/attachments/{attachmentId}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadAttachment(@PathVariable Long id, @PathVariable Long attachmentId,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ResourceAttachment> attachment = resourceCacheService.findById(id).isPresent()
+                ? resourceAttachmentService.find(id, attachmentId) : Optional.empty();
+        
+        if (attachment.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        resourceAttachmentService.stream(attachment.get(), request, response);
     }
     
     @GetMapping("/types")
     public ResponseEntity<ResourceType[]> getResourceTypes() {
         return ResponseEntity.ok(ResourceType.values());
     }
+    
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.prayerportal.controller;
 
 import com.prayerportal.dto.MessageResponse;
+import com.prayerportal.dto.UpdateProfileRequest;
 import com.prayerportal.model.User;
 import com.prayerportal.repository.UserRepository;
 import com.prayerportal.security.services.UserDetailsImpl;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,7 +36,8 @@ public class UserController {
     
     @PutMapping("/profile")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> updateUserProfile(@RequestBody User userData, Authentication authentication) {
+    public ResponseEntity<?> updateUserProfile(@Valid @RequestBody UpdateProfileRequest userData,
+                                               Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         Optional<User> userOpt = userRepository.findById(userDetails.getId());
         
@@ -49,9 +52,13 @@ public class UserController {
         user.setLastName(userData.getLastName());
         user.setBio(userData.getBio());
         
+        if (userData.getDigestFrequency() != null) {
+            user.setDigestFrequency(userData.getDigestFrequency());
+        }
+        
         // Check if email is being changed and if it's unique
-        if (!user.getEmail().equals(userData.getEmail())) {
-            if (userRepository.existsByEmail(userData.getEmail())) {
+        if (userData.getEmail() != null && !user.getEmail().equals(userData.getEmail())) {
+            if (userRepository.isEmailTaken(userData.getEmail())) {
                 return ResponseEntity.badRequest().body(new MessageResponse("Email is already in use!"));
             }
             user.setEmail(userData.getEmail());
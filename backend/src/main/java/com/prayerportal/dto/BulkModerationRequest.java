@@ -0,0 +1,40 @@
+package com.prayerportal.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Selects items either by explicit ids or by any combination of filters
+public class BulkModerationRequest {
+    private List<Long> ids;
+    private Long authorId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String text;
+    
+    // Constructors
+    public BulkModerationRequest() {}
+    
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+    
+    public boolean hasFilters() {
+        return authorId != null || from != null || to != null || (text != null && !text.isBlank());
+    }
+    
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    
+    public Long getAuthorId() { return authorId; }
+    public void setAuthorId(Long authorId) { this.authorId = authorId; }
+    
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+}
\ No newline at end of file
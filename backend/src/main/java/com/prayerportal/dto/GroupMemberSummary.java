@@ -0,0 +1,31 @@
+package com.prayerportal.dto;
+
+public class GroupMemberSummary {
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    
+    // Constructors
+    public GroupMemberSummary() {}
+    
+    public GroupMemberSummary(Long id, String username, String firstName, String lastName) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.prayerportal.dto;
+
+import java.time.LocalDateTime;
+
+public class GroupSummary {
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime createdAt;
+    private Long leaderId;
+    private String leaderUsername;
+    private int memberCount;
+    
+    // Constructors
+    public GroupSummary() {}
+    
+    public GroupSummary(Long id, String name, String description, LocalDateTime createdAt,
+                        Long leaderId, String leaderUsername, int memberCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.leaderId = leaderId;
+        this.leaderUsername = leaderUsername;
+        this.memberCount = memberCount;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public Long getLeaderId() { return leaderId; }
+    public void setLeaderId(Long leaderId) { this.leaderId = leaderId; }
+    
+    public String getLeaderUsername() { return leaderUsername; }
+    public void setLeaderUsername(String leaderUsername) { this.leaderUsername = leaderUsername; }
+    
+    public int getMemberCount() { return memberCount; }
+    public void setMemberCount(int memberCount) { this.memberCount = memberCount; }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.prayerportal.dto;
+
+import com.prayerportal.model.Notification;
+import com.prayerportal.model.NotificationType;
+
+import java.time.LocalDateTime;
+
+public class NotificationEvent {
+    private Long id;
+    private String message;
+    private NotificationType type;
+    private boolean read;
+    private LocalDateTime createdAt;
+    private Long relatedEntityId;
+    
+    // Constructors
+    public NotificationEvent() {}
+    
+    public NotificationEvent(Long id, String message, NotificationType type, boolean read,
+                             LocalDateTime createdAt, Long relatedEntityId) {
+        this.id = id;
+        this.message = message;
+        this.type = type;
+        this.read = read;
+        this.createdAt = createdAt;
+        this.relatedEntityId = relatedEntityId;
+    }
+    
+    public static NotificationEvent from(Notification notification) {
+        return new NotificationEvent(notification.getId(),
+                                     notification.getMessage(),
+                                     notification.getType(),
+                                     notification.isRead(),
+                                     notification.getCreatedAt(),
+                                     notification.getRelatedEntityId());
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    
+    public boolean isRead() { return read; }
+    public void setRead(boolean read) { this.read = read; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public Long getRelatedEntityId() { return relatedEntityId; }
+    public void setRelatedEntityId(Long relatedEntityId) { this.relatedEntityId = relatedEntityId; }
+}
\ No newline at end of file
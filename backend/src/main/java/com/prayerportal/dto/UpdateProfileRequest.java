@@ -0,0 +1,38 @@
+package com.prayerportal.dto;
+
+import com.prayerportal.model.DigestFrequency;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+
+public class UpdateProfileRequest {
+    @Size(max = 100)
+    @Email
+    private String email;
+    
+    @Size(max = 100)
+    private String firstName;
+    
+    @Size(max = 100)
+    private String lastName;
+    
+    private String bio;
+    
+    // Null leaves the current setting alone
+    private DigestFrequency digestFrequency;
+    
+    // Getters and Setters
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    
+    public String getBio() { return bio; }
+    public void setBio(String bio) { this.bio = bio; }
+    
+    public DigestFrequency getDigestFrequency() { return digestFrequency; }
+    public void setDigestFrequency(DigestFrequency digestFrequency) { this.digestFrequency = digestFrequency; }
+}
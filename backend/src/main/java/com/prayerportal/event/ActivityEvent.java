@@ -0,0 +1,21 @@
+package com.prayerportal.event;
+
+import java.time.LocalDateTime;
+
+public class ActivityEvent {
+    private final ActivityType type;
+    private final Long userId;
+    private final LocalDateTime occurredAt;
+    
+    public ActivityEvent(ActivityType type, Long userId) {
+        this.type = type;
+        this.userId = userId;
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    public ActivityType getType() { return type; }
+    
+    public Long getUserId() { return userId; }
+    
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
\ No newline at end of file
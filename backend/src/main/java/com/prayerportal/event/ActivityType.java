@@ -0,0 +1,12 @@
+package com.prayerportal.event;
+
+public enum ActivityType {
+    USER_REGISTERED,
+    USER_ENABLED,
+    USER_DISABLED,
+    USER_DELETED,
+    GROUP_CREATED,
+    GROUP_DELETED,
+    PRAYER_OFFERED,
+    COMMENT_CREATED
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.prayerportal.event;
+
+import com.prayerportal.model.PrayerRequest;
+import com.prayerportal.model.Visibility;
+
+import java.time.LocalDateTime;
+
+// Carries the counted state of a prayer request before and after a change;
+// before is null for a new request and after is null for a deleted one.
+public class PrayerRequestChangedEvent {
+    private final State before;
+    private final State after;
+    
+    public PrayerRequestChangedEvent(State before, State after) {
+        this.before = before;
+        this.after = after;
+    }
+    
+    public State getBefore() { return before; }
+    
+    public State getAfter() { return after; }
+    
+    public static final class State {
+        private final boolean publicVisibility;
+        private final boolean answered;
+        private final LocalDateTime createdAt;
+        
+        private State(boolean publicVisibility, boolean answered, LocalDateTime createdAt) {
+            this.publicVisibility = publicVisibility;
+            this.answered = answered;
+            this.createdAt = createdAt;
+        }
+        
+        public static State of(PrayerRequest prayerRequest) {
+            return new State(prayerRequest.getVisibility() == Visibility.PUBLIC,
+                             prayerRequest.isAnswered(),
+                             prayerRequest.getCreatedAt());
+        }
+        
+        public boolean isPublicVisibility() { return publicVisibility; }
+        
+        public boolean isAnswered() { return answered; }
+        
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+}
\ No newline at end of file
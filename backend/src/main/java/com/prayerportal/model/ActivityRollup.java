@@ -0,0 +1,71 @@
+package com.prayerportal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "activity_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start"}))
+public class ActivityRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    private long prayerRequests;
+    
+    private long prayers;
+    
+    private long comments;
+    
+    private long signups;
+    
+    // HyperLogLog registers of the users active in this bucket
+    @Column(columnDefinition = "bytea")
+    private byte[] activeUsersSketch;
+    
+    private LocalDateTime updatedAt = LocalDateTime.now();
+    
+    // Constructors
+    public ActivityRollup() {}
+    
+    public ActivityRollup(RollupGranularity granularity, LocalDateTime bucketStart) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public RollupGranularity getGranularity() { return granularity; }
+    public void setGranularity(RollupGranularity granularity) { this.granularity = granularity; }
+    
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    
+    public long getPrayerRequests() { return prayerRequests; }
+    public void setPrayerRequests(long prayerRequests) { this.prayerRequests = prayerRequests; }
+    
+    public long getPrayers() { return prayers; }
+    public void setPrayers(long prayers) { this.prayers = prayers; }
+    
+    public long getComments() { return comments; }
+    public void setComments(long comments) { this.comments = comments; }
+    
+    public long getSignups() { return signups; }
+    public void setSignups(long signups) { this.signups = signups; }
+    
+    public byte[] getActiveUsersSketch() { return activeUsersSketch; }
+    public void setActiveUsersSketch(byte[] activeUsersSketch) { this.activeUsersSketch = activeUsersSketch; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.prayerportal.model;
+
+public enum DigestFrequency {
+    NONE,
+    DAILY,
+    WEEKLY
+}
\ No newline at end of file
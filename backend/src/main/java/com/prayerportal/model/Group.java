@@ -1,9 +1,12 @@
 package com.prayerportal.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -11,6 +14,10 @@ import java.util.Set;
 
 @Entity
 @Table(name = "groups")
+// Lazy references arrive as Hibernate proxies; their handler is not part of the JSON
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "groups")
 public class Group {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +32,11 @@ public class Group {
     
     private LocalDateTime createdAt = LocalDateTime.now();
     
+    // Maintained by GroupMembershipService on join and leave with atomic SQL
+    // updates; entity saves never write it, so a stale copy cannot undo them
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    private int memberCount;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "leader_id")
     private User leader;
@@ -35,6 +47,7 @@ public class Group {
         joinColumns = @JoinColumn(name = "group_id"),
         inverseJoinColumns = @JoinColumn(name = "user_id")
     )
+    @JsonIgnore
     private Set<User> members = new HashSet<>();
     
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -63,6 +76,9 @@ public class Group {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
+    public int getMemberCount() { return memberCount; }
+    public void setMemberCount(int memberCount) { this.memberCount = memberCount; }
+    
     public User getLeader() { return leader; }
     public void setLeader(User leader) { this.leader = leader; }
     
@@ -0,0 +1,83 @@
+package com.prayerportal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "moderation_jobs")
+public class ModerationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ModerationTarget target;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PurgeStatus status = PurgeStatus.PENDING;
+    
+    // The ids or filters the job was submitted with, as JSON
+    @Column(columnDefinition = "TEXT")
+    private String criteria;
+    
+    private Long requestedBy;
+    
+    private long matched;
+    
+    private long affected;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    // Constructors
+    public ModerationJob() {}
+    
+    public ModerationJob(ModerationTarget target, String criteria, Long requestedBy) {
+        this.target = target;
+        this.criteria = criteria;
+        this.requestedBy = requestedBy;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public ModerationTarget getTarget() { return target; }
+    public void setTarget(ModerationTarget target) { this.target = target; }
+    
+    public PurgeStatus getStatus() { return status; }
+    public void setStatus(PurgeStatus status) { this.status = status; }
+    
+    public String getCriteria() { return criteria; }
+    public void setCriteria(String criteria) { this.criteria = criteria; }
+    
+    public Long getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(Long requestedBy) { this.requestedBy = requestedBy; }
+    
+    public long getMatched() { return matched; }
+    public void setMatched(long matched) { this.matched = matched; }
+    
+    public long getAffected() { return affected; }
+    public void setAffected(long affected) { this.affected = affected; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
\ No newline at end of file
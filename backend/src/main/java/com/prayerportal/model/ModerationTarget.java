@@ -0,0 +1,6 @@
+package com.prayerportal.model;
+
+public enum ModerationTarget {
+    PRAYER_REQUEST,
+    COMMENT
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.prayerportal.model;
+
+public enum OutboxEventType {
+    NOTIFICATION,
+    EMAIL
+}
\ No newline at end of file
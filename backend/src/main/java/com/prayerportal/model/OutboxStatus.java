@@ -0,0 +1,8 @@
+package com.prayerportal.model;
+
+public enum OutboxStatus {
+    PENDING,
+    IN_PROGRESS,
+    PROCESSED,
+    FAILED
+}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.prayerportal.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -11,6 +13,9 @@ import java.util.Set;
 
 @Entity
 @Table(name = "prayer_requests")
+// Lazy references arrive as Hibernate proxies; their handler is not part of the JSON
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@SQLRestriction("deleted_at IS NULL")
 public class PrayerRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,6 +47,10 @@ public class PrayerRequest {
     
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    // Hidden from every query once set; the rows are removed later by a purge job
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private User author;
@@ -101,6 +110,9 @@ public class PrayerRequest {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+    
     public User getAuthor() { return author; }
     public void setAuthor(User author) { this.author = author; }
     
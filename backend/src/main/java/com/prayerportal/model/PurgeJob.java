@@ -0,0 +1,89 @@
+package com.prayerportal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "purge_jobs",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"target_type", "target_id"}))
+public class PurgeJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private PurgeTarget targetType;
+    
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PurgeStatus status = PurgeStatus.PENDING;
+    
+    // Name of the step currently being purged
+    @Column(length = 50)
+    private String phase;
+    
+    private long deletedRows;
+    
+    private int batches;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime heartbeatAt;
+    
+    private LocalDateTime completedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    // Constructors
+    public PurgeJob() {}
+    
+    public PurgeJob(PurgeTarget targetType, Long targetId) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public PurgeTarget getTargetType() { return targetType; }
+    public void setTargetType(PurgeTarget targetType) { this.targetType = targetType; }
+    
+    public Long getTargetId() { return targetId; }
+    public void setTargetId(Long targetId) { this.targetId = targetId; }
+    
+    public PurgeStatus getStatus() { return status; }
+    public void setStatus(PurgeStatus status) { this.status = status; }
+    
+    public String getPhase() { return phase; }
+    public void setPhase(String phase) { this.phase = phase; }
+    
+    public long getDeletedRows() { return deletedRows; }
+    public void setDeletedRows(long deletedRows) { this.deletedRows = deletedRows; }
+    
+    public int getBatches() { return batches; }
+    public void setBatches(int batches) { this.batches = batches; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.prayerportal.model;
+
+public enum PurgeStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
\ No newline at end of file
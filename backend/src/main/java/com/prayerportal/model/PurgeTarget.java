@@ -0,0 +1,6 @@
+package com.prayerportal.model;
+
+public enum PurgeTarget {
+    PRAYER_REQUEST,
+    USER
+}
\ No newline at end of file
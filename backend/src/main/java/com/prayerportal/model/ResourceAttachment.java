@@ -0,0 +1,69 @@
+package com.prayerportal.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A file attached to a resource; the bytes live in the blob store under storageKey
+@Entity
+@Table(name = "resource_attachments", indexes = @Index(columnList = "resource_id"))
+public class ResourceAttachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+    
+    @Column(nullable = false)
+    private String filename;
+    
+    @Column(nullable = false, length = 100)
+    private String contentType;
+    
+    private long size;
+    
+    @Column(nullable = false, length = 64)
+    private String sha256;
+    
+    @JsonIgnore
+    @Column(nullable = false, length = 64)
+    private String storageKey;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    // Constructors
+    public ResourceAttachment() {}
+    
+    public ResourceAttachment(Long resourceId, String filename, String contentType) {
+        this.resourceId = resourceId;
+        this.filename = filename;
+        this.contentType = contentType;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+    
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.prayerportal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// The rendered JSON body of a resource in one content encoding
+@Entity
+@Table(name = "resource_variants",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"resource_id", "encoding"}))
+public class ResourceVariant {
+    public static final String IDENTITY = "identity";
+    public static final String GZIP = "gzip";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+    
+    @Column(nullable = false, length = 20)
+    private String encoding;
+    
+    @Column(columnDefinition = "bytea", nullable = false)
+    private byte[] body;
+    
+    @Column(nullable = false, length = 80)
+    private String etag;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    // Constructors
+    public ResourceVariant() {}
+    
+    public ResourceVariant(Long resourceId, String encoding) {
+        this.resourceId = resourceId;
+        this.encoding = encoding;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    
+    public String getEncoding() { return encoding; }
+    public void setEncoding(String encoding) { this.encoding = encoding; }
+    
+    public byte[] getBody() { return body; }
+    public void setBody(byte[] body) { this.body = body; }
+    
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
\ No newline at end of file
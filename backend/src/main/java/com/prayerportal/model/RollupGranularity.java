@@ -0,0 +1,6 @@
+package com.prayerportal.model;
+
+public enum RollupGranularity {
+    HOUR,
+    DAY
+}
\ No newline at end of file
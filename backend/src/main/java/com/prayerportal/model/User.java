@@ -1,10 +1,14 @@
 package com.prayerportal.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +18,11 @@ import java.util.*;
 
 @Entity
 @Table(name = "users")
+// Lazy references arrive as Hibernate proxies; their handler is not part of the JSON
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@SQLRestriction("deleted_at IS NULL")
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -56,6 +65,20 @@ public class User implements UserDetails {
     
     private LocalDateTime lastLoginAt;
     
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private DigestFrequency digestFrequency = DigestFrequency.WEEKLY;
+    
+    // Written only by UserRepository.markDigestSent and read only by the digest
+    // query, which goes to the database; a cached copy may be behind
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lastDigestSentAt;
+    
+    // Set when the account is deleted; the rows are removed later by a purge job
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+    
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private Set<PrayerRequest> prayerRequests = new HashSet<>();
@@ -146,6 +169,14 @@ public class User implements UserDetails {
     public LocalDateTime getLastLoginAt() { return lastLoginAt; }
     public void setLastLoginAt(LocalDateTime lastLoginAt) { this.lastLoginAt = lastLoginAt; }
     
+    public DigestFrequency getDigestFrequency() { return digestFrequency; }
+    public void setDigestFrequency(DigestFrequency digestFrequency) { this.digestFrequency = digestFrequency; }
+    
+    public LocalDateTime getLastDigestSentAt() { return lastDigestSentAt; }
+    
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+    
     public Set<PrayerRequest> getPrayerRequests() { return prayerRequests; }
     public void setPrayerRequests(Set<PrayerRequest> prayerRequests) { this.prayerRequests = prayerRequests; }
     
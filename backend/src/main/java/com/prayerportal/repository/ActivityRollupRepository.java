@@ -0,0 +1,22 @@
+package com.prayerportal.repository;
+
+import com.prayerportal.model.ActivityRollup;
+import com.prayerportal.model.RollupGranularity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ActivityRollup> findByGranularityAndBucketStart(RollupGranularity granularity, LocalDateTime bucketStart);
+    
+    List<ActivityRollup> findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(RollupGranularity granularity,
+                                                                                    LocalDateTime from,
+                                                                                    LocalDateTime to);
+}
\ No newline at end of file
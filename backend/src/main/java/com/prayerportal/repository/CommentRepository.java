@@ -2,16 +2,111 @@ package com.prayerportal.repository;
 
 import com.prayerportal.model.Comment;
 import com.prayerportal.model.PrayerRequest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByPrayerRequest(PrayerRequest prayerRequest, Pageable pageable);
     
-    Page<Comment> findByPrayerRequestIdOrderByCreatedAtAsc(Long prayerRequestId, Pageable pageable);
+    // Joins the request so comments of a hidden (deleted) request are not listed;
+    // authors are fetched with the page rather than one query per comment
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c WHERE c.prayerRequest.id = :prayerRequestId AND " +
+           "c.prayerRequest.deletedAt IS NULL ORDER BY c.createdAt ASC")
+    Page<Comment> findByPrayerRequestIdOrderByCreatedAtAsc(@Param("prayerRequestId") Long prayerRequestId, 
+                                                           Pageable pageable);
     
     long countByPrayerRequest(PrayerRequest prayerRequest);
+    
+    // Rows of [authorId, commentCount] for comments others left since the given time
+    @Query("SELECT pr.author.id, COUNT(c) FROM Comment c JOIN c.prayerRequest pr " +
+           "WHERE pr.author.id IN :authorIds AND c.author.id <> pr.author.id AND c.createdAt >= :since " +
+           "GROUP BY pr.author.id")
+    List<Object[]> countReceivedSince(@Param("authorIds") Collection<Long> authorIds, 
+                                      @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "UPDATE comments SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "UPDATE comments SET deleted_at = :now WHERE author_id = :authorId AND deleted_at IS NULL", 
+           nativeQuery = true)
+    int softDeleteByAuthorId(@Param("authorId") Long authorId, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "DELETE FROM comments WHERE id IN (" +
+                   "SELECT id FROM comments WHERE prayer_request_id = :prayerRequestId LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchByPrayerRequestId(@Param("prayerRequestId") Long prayerRequestId, @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "DELETE FROM comments WHERE id IN (" +
+                   "SELECT id FROM comments WHERE author_id = :authorId LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchByAuthorId(@Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "DELETE FROM comments WHERE id IN (" +
+                   "SELECT c.id FROM comments c JOIN prayer_requests pr ON pr.id = c.prayer_request_id " +
+                   "WHERE pr.author_id = :authorId LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchOnRequestsOfAuthor(@Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    // Comments hidden on their own, by moderation or a single delete, while their
+    // request and author stay; read through idx_comments_deleted
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "DELETE FROM comments WHERE id IN (" +
+                   "SELECT id FROM comments WHERE deleted_at IS NOT NULL LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchSoftDeleted(@Param("limit") int limit);
+    
+    // Keyset page of ids matching the moderation filters; null filters are ignored.
+    // The casts type null dates for PostgreSQL; the text is a LIKE pattern escaped with '!'
+    @Query("SELECT c.id FROM Comment c WHERE c.id > :afterId AND " +
+           "(:authorId IS NULL OR c.author.id = :authorId) AND " +
+           "(CAST(:from AS LocalDateTime) IS NULL OR c.createdAt >= :from) AND " +
+           "(CAST(:to AS LocalDateTime) IS NULL OR c.createdAt < :to) AND " +
+           "(:text IS NULL OR LOWER(c.content) LIKE :text ESCAPE '!') " +
+           "ORDER BY c.id")
+    List<Long> findIdsMatching(@Param("afterId") Long afterId, 
+                               @Param("authorId") Long authorId, 
+                               @Param("from") LocalDateTime from, 
+                               @Param("to") LocalDateTime to, 
+                               @Param("text") String text, 
+                               Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "comments"))
+    @Query(value = "UPDATE comments SET deleted_at = :now WHERE id IN (:ids) AND deleted_at IS NULL", 
+           nativeQuery = true)
+    int softDeleteByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
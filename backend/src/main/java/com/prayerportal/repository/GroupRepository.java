@@ -1,13 +1,22 @@
 package com.prayerportal.repository;
 
+import com.prayerportal.dto.GroupMemberSummary;
+import com.prayerportal.dto.GroupSummary;
 import com.prayerportal.model.Group;
 import com.prayerportal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
@@ -21,5 +30,90 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
            "LOWER(g.description) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<Group> findBySearchTerm(@Param("search") String search, Pageable pageable);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "group-lookups")})
     boolean existsByName(String name);
+    
+    long countByLeaderId(Long leaderId);
+    
+    @Query(value = "SELECT new com.prayerportal.dto.GroupSummary(g.id, g.name, g.description, g.createdAt, " +
+                   "l.id, l.username, g.memberCount) FROM Group g LEFT JOIN g.leader l",
+           countQuery = "SELECT COUNT(g) FROM Group g")
+    Page<GroupSummary> findSummaries(Pageable pageable);
+    
+    @Query(value = "SELECT new com.prayerportal.dto.GroupSummary(g.id, g.name, g.description, g.createdAt, " +
+                   "l.id, l.username, g.memberCount) FROM Group g LEFT JOIN g.leader l WHERE " +
+                   "LOWER(g.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                   "LOWER(g.description) LIKE LOWER(CONCAT('%', :search, '%'))",
+           countQuery = "SELECT COUNT(g) FROM Group g WHERE " +
+                        "LOWER(g.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                        "LOWER(g.description) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<GroupSummary> findSummariesBySearchTerm(@Param("search") String search, Pageable pageable);
+    
+    @Query(value = "SELECT new com.prayerportal.dto.GroupSummary(g.id, g.name, g.description, g.createdAt, " +
+                   "l.id, l.username, g.memberCount) FROM Group g JOIN g.members m LEFT JOIN g.leader l " +
+                   "WHERE m.id = :userId",
+           countQuery = "SELECT COUNT(g) FROM Group g JOIN g.members m WHERE m.id = :userId")
+    Page<GroupSummary> findSummariesByMemberId(@Param("userId") Long userId, Pageable pageable);
+    
+    // Keyset page of a group's roster ordered by user id
+    @Query("SELECT new com.prayerportal.dto.GroupMemberSummary(u.id, u.username, u.firstName, u.lastName) " +
+           "FROM Group g JOIN g.members u WHERE g.id = :groupId AND u.id > :afterId ORDER BY u.id")
+    List<GroupMemberSummary> findMembersAfter(@Param("groupId") Long groupId, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+    
+    // Native writes name the tables they touch so Hibernate invalidates only
+    // those cache regions instead of the whole second-level cache. This one
+    // names a space no entity maps to, so the groups region survives every join
+    // and leave; GroupMembershipService evicts the one group after commit.
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_member_counts"))
+    @Query(value = "UPDATE groups SET member_count = GREATEST(member_count + :delta, 0) WHERE id = :groupId", 
+           nativeQuery = true)
+    int adjustMemberCount(@Param("groupId") Long groupId, @Param("delta") int delta);
+    
+    // Corrects counts that drifted, e.g. rows removed by cascades rather than leave()
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "groups"))
+    @Query(value = "UPDATE groups g SET member_count = c.actual FROM " +
+                   "(SELECT g2.id, COUNT(m.user_id) AS actual FROM groups g2 " +
+                   "LEFT JOIN group_members m ON m.group_id = g2.id GROUP BY g2.id) c " +
+                   "WHERE g.id = c.id AND g.member_count <> c.actual", 
+           nativeQuery = true)
+    int reconcileMemberCounts();
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM group_members WHERE group_id = :groupId AND user_id = :userId)", 
+           nativeQuery = true)
+    boolean isMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+    
+    @Query(value = "SELECT user_id FROM group_members WHERE group_id = :groupId", nativeQuery = true)
+    List<Long> findMemberIds(@Param("groupId") Long groupId);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_members"))
+    @Query(value = "INSERT INTO group_members (group_id, user_id) VALUES (:groupId, :userId) " +
+                   "ON CONFLICT DO NOTHING", 
+           nativeQuery = true)
+    int addMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_members"))
+    @Query(value = "DELETE FROM group_members WHERE group_id = :groupId AND user_id = :userId", 
+           nativeQuery = true)
+    int removeMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+    
+    // Removes a user from every group and keeps member_count in step
+    @Modifying
+    @Transactional
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_members"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "groups")})
+    @Query(value = "WITH removed AS (DELETE FROM group_members WHERE user_id = :userId RETURNING group_id) " +
+                   "UPDATE groups SET member_count = GREATEST(member_count - 1, 0) " +
+                   "WHERE id IN (SELECT group_id FROM removed)", 
+           nativeQuery = true)
+    int removeMemberFromAllGroups(@Param("userId") Long userId);
 }
\ No newline at end of file
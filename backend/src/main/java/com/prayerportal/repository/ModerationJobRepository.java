@@ -0,0 +1,16 @@
+package com.prayerportal.repository;
+
+import com.prayerportal.model.ModerationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ModerationJobRepository extends JpaRepository<ModerationJob, Long> {
+    @Modifying
+    @Query("UPDATE ModerationJob j SET j.matched = j.matched + :matched, j.affected = j.affected + :affected " +
+           "WHERE j.id = :id")
+    int recordProgress(@Param("id") Long id, @Param("matched") long matched, @Param("affected") long affected);
+}
\ No newline at end of file
@@ -2,10 +2,20 @@ package com.prayerportal.repository;
 
 import com.prayerportal.model.Notification;
 import com.prayerportal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -14,4 +24,32 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     long countByUserAndIsReadFalse(User user);
     
     void deleteByUserAndIsReadTrue(User user);
+    
+    List<Notification> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notifications"))
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+                   "SELECT id FROM notifications WHERE type = :type AND created_at < :cutoff LIMIT :limit)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("type") String type, 
+                           @Param("cutoff") LocalDateTime cutoff, 
+                           @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notifications"))
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+                   "SELECT id FROM notifications WHERE is_read = true AND created_at < :cutoff LIMIT :limit)",
+           nativeQuery = true)
+    int deleteReadBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notifications"))
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+                   "SELECT id FROM notifications WHERE user_id = :userId LIMIT :limit)",
+           nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.prayerportal.repository;
+
+import com.prayerportal.model.OutboxEvent;
+import com.prayerportal.model.OutboxStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // SKIP LOCKED lets every node poll concurrently, each claiming a disjoint batch.
+    // Claimed events come back once their lease runs out, e.g. after a crash.
+    @Query(value = "SELECT * FROM outbox_events " +
+                   "WHERE status IN ('PENDING', 'IN_PROGRESS') AND next_attempt_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    // The lease end doubles as the claim's token: results are only recorded
+    // while the event still carries it, not after another node took it over
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :inProgress, e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("inProgress") OutboxStatus inProgress,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.status = :processed, e.processedAt = :now, e.lastError = NULL " +
+           "WHERE e.id IN :ids AND e.status = :inProgress AND e.nextAttemptAt = :leaseUntil")
+    int markProcessed(@Param("ids") Collection<Long> ids,
+                      @Param("processed") OutboxStatus processed,
+                      @Param("inProgress") OutboxStatus inProgress,
+                      @Param("leaseUntil") LocalDateTime leaseUntil,
+                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :lastError " +
+           "WHERE e.id = :id AND e.status = :inProgress AND e.nextAttemptAt = :leaseUntil")
+    int recordFailure(@Param("id") Long id,
+                      @Param("inProgress") OutboxStatus inProgress,
+                      @Param("leaseUntil") LocalDateTime leaseUntil,
+                      @Param("status") OutboxStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+    
+    long countByStatus(OutboxStatus status);
+    
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxStatus status);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.status = :pending, e.attempts = 0, e.nextAttemptAt = :now " +
+           "WHERE e.status = :failed")
+    int requeueFailed(@Param("pending") OutboxStatus pending, 
+                      @Param("failed") OutboxStatus failed, 
+                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_events"))
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (" +
+                   "SELECT id FROM outbox_events WHERE status = 'PROCESSED' AND processed_at < :cutoff LIMIT :limit)",
+           nativeQuery = true)
+    int deleteProcessedBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
\ No newline at end of file
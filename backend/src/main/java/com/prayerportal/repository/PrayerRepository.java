@@ -3,9 +3,19 @@ package com.prayerportal.repository;
 import com.prayerportal.model.Prayer;
 import com.prayerportal.model.PrayerRequest;
 import com.prayerportal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +25,42 @@ public interface PrayerRepository extends JpaRepository<Prayer, Long> {
     long countByPrayerRequest(PrayerRequest prayerRequest);
     
     boolean existsByUserAndPrayerRequest(User user, PrayerRequest prayerRequest);
+    
+    // Rows of [authorId, prayerCount] for prayers received since the given time
+    @Query("SELECT pr.author.id, COUNT(p) FROM Prayer p JOIN p.prayerRequest pr " +
+           "WHERE pr.author.id IN :authorIds AND p.prayedAt >= :since " +
+           "GROUP BY pr.author.id")
+    List<Object[]> countReceivedSince(@Param("authorIds") Collection<Long> authorIds, 
+                                      @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayers"))
+    @Query(value = "DELETE FROM prayers WHERE id IN (" +
+                   "SELECT id FROM prayers WHERE prayer_request_id = :prayerRequestId LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchByPrayerRequestId(@Param("prayerRequestId") Long prayerRequestId, @Param("limit") int limit);
+    
+    // Also takes the user's prayers off the prayed-for counts of the requests they prayed for;
+    // returns the number of requests adjusted, which is zero once nothing is left to delete
+    @Modifying
+    @Transactional
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayers"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayer_requests")})
+    @Query(value = "WITH removed AS (DELETE FROM prayers WHERE id IN (" +
+                   "SELECT id FROM prayers WHERE user_id = :userId LIMIT :limit) RETURNING prayer_request_id) " +
+                   "UPDATE prayer_requests pr SET prayed_for_count = GREATEST(pr.prayed_for_count - r.removed_count, 0) " +
+                   "FROM (SELECT prayer_request_id, COUNT(*) AS removed_count FROM removed GROUP BY prayer_request_id) r " +
+                   "WHERE pr.id = r.prayer_request_id", 
+           nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayers"))
+    @Query(value = "DELETE FROM prayers WHERE id IN (" +
+                   "SELECT p.id FROM prayers p JOIN prayer_requests pr ON pr.id = p.prayer_request_id " +
+                   "WHERE pr.author_id = :authorId LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchOnRequestsOfAuthor(@Param("authorId") Long authorId, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -3,14 +3,21 @@ package com.prayerportal.repository;
 import com.prayerportal.model.PrayerRequest;
 import com.prayerportal.model.User;
 import com.prayerportal.model.Visibility;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,6 +28,8 @@ public interface PrayerRequestRepository extends JpaRepository<PrayerRequest, Lo
     
     Page<PrayerRequest> findByIsAnswered(boolean isAnswered, Pageable pageable);
     
+    // Authors and groups come in the same query; the JSON includes both for every row
+    @EntityGraph(attributePaths = {"author", "group"})
     @Query("SELECT pr FROM PrayerRequest pr WHERE " +
            "pr.visibility = 'PUBLIC' OR " +
            "(pr.visibility = 'GROUP_ONLY' AND pr.group.id IN " +
@@ -28,11 +37,13 @@ public interface PrayerRequestRepository extends JpaRepository<PrayerRequest, Lo
            "ORDER BY pr.createdAt DESC")
     Page<PrayerRequest> findVisibleToUser(@Param("userId") Long userId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"author", "group"})
     @Query("SELECT pr FROM PrayerRequest pr WHERE " +
            "pr.group.id = :groupId " +
            "ORDER BY pr.createdAt DESC")
     Page<PrayerRequest> findByGroupId(@Param("groupId") Long groupId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"author", "group"})
     @Query("SELECT pr FROM PrayerRequest pr WHERE " +
            "(LOWER(pr.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(pr.description) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
@@ -49,4 +60,70 @@ public interface PrayerRequestRepository extends JpaRepository<PrayerRequest, Lo
     
     @Query("SELECT COUNT(pr) FROM PrayerRequest pr WHERE pr.visibility = 'PUBLIC'")
     long countPublicRequests();
+    
+    @Query(value = "SELECT CAST(created_at AS date) AS day, COUNT(*) FROM prayer_requests " +
+                   "WHERE created_at >= :since AND deleted_at IS NULL GROUP BY CAST(created_at AS date)", 
+           nativeQuery = true)
+    List<Object[]> countCreatedPerDaySince(@Param("since") LocalDateTime since);
+    
+    // Rows of [memberId, prayerRequestTitle] for prayers answered in the members' groups
+    @Query("SELECT m.id, pr.title FROM PrayerRequest pr JOIN pr.group g JOIN g.members m " +
+           "WHERE m.id IN :memberIds AND pr.isAnswered = true AND pr.answeredAt >= :since " +
+           "AND pr.author.id <> m.id")
+    List<Object[]> findAnsweredInMemberGroupsSince(@Param("memberIds") Collection<Long> memberIds, 
+                                                   @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayer_requests"))
+    @Query(value = "UPDATE prayer_requests SET deleted_at = :now WHERE id = :id AND deleted_at IS NULL", 
+           nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayer_requests"))
+    @Query(value = "UPDATE prayer_requests SET deleted_at = :now WHERE author_id = :authorId AND deleted_at IS NULL", 
+           nativeQuery = true)
+    int softDeleteByAuthorId(@Param("authorId") Long authorId, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayer_requests"))
+    @Query(value = "DELETE FROM prayer_requests WHERE id IN (" +
+                   "SELECT id FROM prayer_requests WHERE author_id = :authorId LIMIT :limit)", 
+           nativeQuery = true)
+    int deleteBatchByAuthorId(@Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayer_requests"))
+    @Query(value = "DELETE FROM prayer_requests WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeById(@Param("id") Long id);
+    
+    // Keyset page of ids matching the moderation filters; null filters are ignored.
+    // The casts type null dates for PostgreSQL; the text is a LIKE pattern escaped with '!'
+    @Query("SELECT pr.id FROM PrayerRequest pr WHERE pr.id > :afterId AND " +
+           "(:authorId IS NULL OR pr.author.id = :authorId) AND " +
+           "(CAST(:from AS LocalDateTime) IS NULL OR pr.createdAt >= :from) AND " +
+           "(CAST(:to AS LocalDateTime) IS NULL OR pr.createdAt < :to) AND " +
+           "(:text IS NULL OR LOWER(pr.title) LIKE :text ESCAPE '!' OR " +
+           "LOWER(pr.description) LIKE :text ESCAPE '!') " +
+           "ORDER BY pr.id")
+    List<Long> findIdsMatching(@Param("afterId") Long afterId, 
+                               @Param("authorId") Long authorId, 
+                               @Param("from") LocalDateTime from, 
+                               @Param("to") LocalDateTime to, 
+                               @Param("text") String text, 
+                               Pageable pageable);
+    
+    @Query("SELECT pr.id FROM PrayerRequest pr WHERE pr.id IN :ids")
+    List<Long> findLiveIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "prayer_requests"))
+    @Query(value = "UPDATE prayer_requests SET deleted_at = :now WHERE id IN (:ids) AND deleted_at IS NULL", 
+           nativeQuery = true)
+    int softDeleteByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
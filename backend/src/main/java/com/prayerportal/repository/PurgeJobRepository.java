@@ -0,0 +1,38 @@
+package com.prayerportal.repository;
+
+import com.prayerportal.model.PurgeJob;
+import com.prayerportal.model.PurgeStatus;
+import com.prayerportal.model.PurgeTarget;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PurgeJobRepository extends JpaRepository<PurgeJob, Long> {
+    Optional<PurgeJob> findByTargetTypeAndTargetId(PurgeTarget targetType, Long targetId);
+    
+    Page<PurgeJob> findByStatus(PurgeStatus status, Pageable pageable);
+    
+    // Pending jobs, plus running ones whose worker stopped sending heartbeats
+    @Query(value = "SELECT * FROM purge_jobs WHERE status = 'PENDING' OR " +
+                   "(status = 'RUNNING' AND heartbeat_at < :staleBefore) " +
+                   "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", 
+           nativeQuery = true)
+    List<PurgeJob> lockNextRunnable(@Param("staleBefore") LocalDateTime staleBefore);
+    
+    @Modifying
+    @Query("UPDATE PurgeJob j SET j.phase = :phase, j.deletedRows = j.deletedRows + :deleted, " +
+           "j.batches = j.batches + 1, j.heartbeatAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") Long id, 
+                       @Param("phase") String phase, 
+                       @Param("deleted") long deleted, 
+                       @Param("now") LocalDateTime now);
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.prayerportal.repository;
+
+import com.prayerportal.model.ResourceAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ResourceAttachmentRepository extends JpaRepository<ResourceAttachment, Long> {
+    List<ResourceAttachment> findByResourceIdOrderByCreatedAtAsc(Long resourceId);
+    
+    Optional<ResourceAttachment> findByIdAndResourceId(Long id, Long resourceId);
+}
\ No newline at end of file
@@ -9,12 +9,16 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
     Page<Resource> findByTypeAndIsActiveTrue(ResourceType type, Pageable pageable);
     
     Page<Resource> findByIsActiveTrueOrderByCreatedAtDesc(Pageable pageable);
     
+    List<Resource> findByIsActiveTrueOrderByCreatedAtDescIdDesc();
+    
     @Query("SELECT r FROM Resource r WHERE " +
            "r.isActive = true AND " +
            "(LOWER(r.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -0,0 +1,27 @@
+package com.prayerportal.repository;
+
+import com.prayerportal.model.ResourceVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ResourceVariantRepository extends JpaRepository<ResourceVariant, Long> {
+    Optional<ResourceVariant> findByResourceIdAndEncoding(Long resourceId, String encoding);
+    
+    List<ResourceVariant> findByResourceIdIn(Collection<Long> resourceIds);
+    
+    @Query(value = "SELECT r.id FROM resources r WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM resource_variants v WHERE v.resource_id = r.id)", nativeQuery = true)
+    List<Long> findResourceIdsWithoutVariants();
+    
+    @Modifying
+    @Query("DELETE FROM ResourceVariant v WHERE v.resourceId = :resourceId")
+    int deleteByResourceId(@Param("resourceId") Long resourceId);
+}
\ No newline at end of file
@@ -1,21 +1,40 @@
 package com.prayerportal.repository;
 
+import com.prayerportal.model.DigestFrequency;
 import com.prayerportal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Runs on every authenticated request via UserDetailsServiceImpl
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-lookups")})
     Optional<User> findByUsername(String username);
+    
     Optional<User> findByEmail(String email);
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
+    
+    // Deleted accounts keep their username and email until the purge removes the
+    // row, since the unique constraints still cover them
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE username = :username)", nativeQuery = true)
+    boolean isUsernameTaken(@Param("username") String username);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE email = :email)", nativeQuery = true)
+    boolean isEmailTaken(@Param("email") String email);
     
     @Query("SELECT u FROM User u WHERE " +
            "LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -25,4 +44,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findBySearchTerm(@Param("search") String search, Pageable pageable);
     
     long countByEnabledTrue();
+    
+    @Query("SELECT u FROM User u WHERE " +
+           "u.digestFrequency = :frequency AND u.enabled = true AND u.id > :afterId AND " +
+           "(u.lastDigestSentAt IS NULL OR u.lastDigestSentAt < :dueBefore) " +
+           "ORDER BY u.id")
+    List<User> findDueForDigest(@Param("frequency") DigestFrequency frequency,
+                                @Param("dueBefore") LocalDateTime dueBefore,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+    
+    // Names a space no entity maps to, so the users region and the user-lookups
+    // query cache are left alone; cached users never read last_digest_sent_at
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_digests"))
+    @Query(value = "UPDATE users SET last_digest_sent_at = :sentAt WHERE id IN :userIds", nativeQuery = true)
+    int markDigestSent(@Param("userIds") Collection<Long> userIds, @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.enabled = false, u.deletedAt = :now WHERE u.id = :id AND u.deletedAt IS NULL")
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "DELETE FROM users WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeById(@Param("id") Long id);
 }
\ No newline at end of file
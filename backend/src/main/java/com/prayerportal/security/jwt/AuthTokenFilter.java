@@ -1,6 +1,8 @@
 package com.prayerportal.security.jwt;
 
+import com.prayerportal.security.services.UserDetailsImpl;
 import com.prayerportal.security.services.UserDetailsServiceImpl;
+import com.prayerportal.service.ActivityRollupService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private ActivityRollupService activityRollupService;
+    
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
     
     @Override
@@ -41,6 +46,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                activityRollupService.recordActiveUser(((UserDetailsImpl) userDetails).getId());
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -0,0 +1,252 @@
+package com.prayerportal.service;
+
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.PrayerRequestChangedEvent;
+import com.prayerportal.model.ActivityRollup;
+import com.prayerportal.model.RollupGranularity;
+import com.prayerportal.repository.ActivityRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pre-aggregates activity into hourly and daily rows of activity_rollups.
+// Events and authenticated requests are counted in memory per hour and
+// merged into the table every flush interval, so the time series never
+// has to GROUP BY over prayers or prayer_requests.
+@Service
+public class ActivityRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityRollupService.class);
+    
+    @Autowired
+    private ActivityRollupRepository activityRollupRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.analytics.rollup.max-buckets:2000}")
+    private int maxBuckets;
+    
+    private final Map<LocalDateTime, PendingBucket> pending = new ConcurrentHashMap<>();
+    
+    public void recordActiveUser(Long userId) {
+        bucketFor(LocalDateTime.now()).addActiveUser(userId);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        PendingBucket bucket = bucketFor(event.getOccurredAt());
+        switch (event.getType()) {
+            case USER_REGISTERED:
+                bucket.signups.increment();
+                break;
+            case PRAYER_OFFERED:
+                bucket.prayers.increment();
+                break;
+            case COMMENT_CREATED:
+                bucket.comments.increment();
+                break;
+            default:
+                break;
+        }
+        if (event.getUserId() != null) {
+            bucket.addActiveUser(event.getUserId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrayerRequestChanged(PrayerRequestChangedEvent event) {
+        if (event.getBefore() == null && event.getAfter() != null) {
+            bucketFor(LocalDateTime.now()).prayerRequests.increment();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.flush-interval:60000}")
+    @PreDestroy
+    public void flush() {
+        LocalDateTime staleBefore = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        
+        for (Map.Entry<LocalDateTime, PendingBucket> entry : pending.entrySet()) {
+            LocalDateTime hour = entry.getKey();
+            PendingBucket bucket = entry.getValue();
+            Drained drained = bucket.drain();
+            
+            if (drained == null) {
+                // Nothing is recorded into an hour this old any more
+                if (hour.isBefore(staleBefore)) {
+                    pending.remove(hour, bucket);
+                }
+                continue;
+            }
+            
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    merge(RollupGranularity.HOUR, hour, drained);
+                    merge(RollupGranularity.DAY, hour.truncatedTo(ChronoUnit.DAYS), drained);
+                });
+            } catch (RuntimeException e) {
+                // Another node may have inserted the same bucket; retried on the next flush
+                bucket.restore(drained);
+                logger.warn("Failed to flush activity rollup for {}: {}", hour, e.getMessage());
+            }
+        }
+    }
+    
+    public Map<String, Object> getTimeseries(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = truncate(granularity, from);
+        LocalDateTime end = truncate(granularity, to);
+        Duration step = granularity == RollupGranularity.HOUR ? Duration.ofHours(1) : Duration.ofDays(1);
+        
+        long buckets = Duration.between(start, end).dividedBy(step) + 1;
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Range spans " + buckets + " buckets, at most " + maxBuckets + " allowed");
+        }
+        
+        Map<LocalDateTime, ActivityRollup> rows = new HashMap<>();
+        for (ActivityRollup rollup : activityRollupRepository
+                .findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(granularity, start, end)) {
+            rows.put(rollup.getBucketStart(), rollup);
+        }
+        
+        HyperLogLog distinct = new HyperLogLog();
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (LocalDateTime bucketStart = start; !bucketStart.isAfter(end); bucketStart = bucketStart.plus(step)) {
+            ActivityRollup rollup = rows.get(bucketStart);
+            HyperLogLog sketch = HyperLogLog.fromBytes(rollup != null ? rollup.getActiveUsersSketch() : null);
+            distinct.merge(sketch);
+            
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("bucketStart", bucketStart);
+            point.put("prayerRequests", rollup != null ? rollup.getPrayerRequests() : 0);
+            point.put("prayers", rollup != null ? rollup.getPrayers() : 0);
+            point.put("comments", rollup != null ? rollup.getComments() : 0);
+            point.put("signups", rollup != null ? rollup.getSignups() : 0);
+            point.put("activeUsers", sketch.estimate());
+            points.add(point);
+        }
+        
+        Map<String, Object> timeseries = new HashMap<>();
+        timeseries.put("granularity", granularity);
+        timeseries.put("from", start);
+        timeseries.put("to", end);
+        timeseries.put("points", points);
+        timeseries.put("distinctActiveUsers", distinct.estimate());
+        return timeseries;
+    }
+    
+    // DAU, WAU and MAU from the daily sketches of the last 30 days
+    public Map<String, Object> getActiveUsers() {
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<ActivityRollup> days = activityRollupRepository
+                .findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(RollupGranularity.DAY, today.minusDays(29), today);
+        
+        HyperLogLog daily = new HyperLogLog();
+        HyperLogLog weekly = new HyperLogLog();
+        HyperLogLog monthly = new HyperLogLog();
+        for (ActivityRollup day : days) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(day.getActiveUsersSketch());
+            monthly.merge(sketch);
+            if (!day.getBucketStart().isBefore(today.minusDays(6))) {
+                weekly.merge(sketch);
+            }
+            if (day.getBucketStart().equals(today)) {
+                daily.merge(sketch);
+            }
+        }
+        
+        Map<String, Object> activeUsers = new HashMap<>();
+        activeUsers.put("dau", daily.estimate());
+        activeUsers.put("wau", weekly.estimate());
+        activeUsers.put("mau", monthly.estimate());
+        return activeUsers;
+    }
+    
+    private void merge(RollupGranularity granularity, LocalDateTime bucketStart, Drained drained) {
+        ActivityRollup rollup = activityRollupRepository.findByGranularityAndBucketStart(granularity, bucketStart)
+                .orElseGet(() -> new ActivityRollup(granularity, bucketStart));
+        
+        rollup.setPrayerRequests(rollup.getPrayerRequests() + drained.prayerRequests);
+        rollup.setPrayers(rollup.getPrayers() + drained.prayers);
+        rollup.setComments(rollup.getComments() + drained.comments);
+        rollup.setSignups(rollup.getSignups() + drained.signups);
+        
+        HyperLogLog sketch = HyperLogLog.fromBytes(rollup.getActiveUsersSketch());
+        sketch.merge(drained.activeUsers);
+        rollup.setActiveUsersSketch(sketch.toBytes());
+        rollup.setUpdatedAt(LocalDateTime.now());
+        
+        activityRollupRepository.save(rollup);
+    }
+    
+    private PendingBucket bucketFor(LocalDateTime time) {
+        return pending.computeIfAbsent(time.truncatedTo(ChronoUnit.HOURS), hour -> new PendingBucket());
+    }
+    
+    private LocalDateTime truncate(RollupGranularity granularity, LocalDateTime time) {
+        return time.truncatedTo(granularity == RollupGranularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+    
+    private static final class PendingBucket {
+        private final LongAdder prayerRequests = new LongAdder();
+        private final LongAdder prayers = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+        private final LongAdder signups = new LongAdder();
+        private final ConcurrentHyperLogLog activeUsers = new ConcurrentHyperLogLog();
+        private volatile boolean usersChanged;
+        
+        // Lock-free: runs on every authenticated request
+        private void addActiveUser(long userId) {
+            if (activeUsers.add(userId)) {
+                usersChanged = true;
+            }
+        }
+        
+        private Drained drain() {
+            Drained drained = new Drained();
+            drained.prayerRequests = prayerRequests.sumThenReset();
+            drained.prayers = prayers.sumThenReset();
+            drained.comments = comments.sumThenReset();
+            drained.signups = signups.sumThenReset();
+            
+            // Registers only ever grow, so the whole sketch is re-merged while the hour is
+            // active. The flag is cleared before the copy: a register raised meanwhile
+            // sets it again and is picked up by the next flush.
+            if (usersChanged) {
+                usersChanged = false;
+                activeUsers.mergeInto(drained.activeUsers);
+            }
+            
+            boolean empty = drained.prayerRequests == 0 && drained.prayers == 0 && drained.comments == 0
+                            && drained.signups == 0 && drained.activeUsers.isEmpty();
+            return empty ? null : drained;
+        }
+        
+        private void restore(Drained drained) {
+            prayerRequests.add(drained.prayerRequests);
+            prayers.add(drained.prayers);
+            comments.add(drained.comments);
+            signups.add(drained.signups);
+            usersChanged = true;
+        }
+    }
+    
+    private static final class Drained {
+        private long prayerRequests;
+        private long prayers;
+        private long comments;
+        private long signups;
+        private final HyperLogLog activeUsers = new HyperLogLog();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.prayerportal.service;
+
+import com.prayerportal.event.ActivityEvent;
+import com.prayerportal.event.PrayerRequestChangedEvent;
+import com.prayerportal.repository.GroupRepository;
+import com.prayerportal.repository.PrayerRequestRepository;
+import com.prayerportal.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Serves the admin dashboard counters from memory. Controllers publish domain
+// events that adjust the counters after commit, and a periodic reconcile
+// replaces them with fresh COUNTs so any drift is bounded by its interval.
+@Service
+public class AnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PrayerRequestRepository prayerRequestRepository;
+    
+    @Autowired
+    private GroupRepository groupRepository;
+    
+    @Value("${app.analytics.recent-days:30}")
+    private int recentDays;
+    
+    private long totalUsers;
+    private long activeUsers;
+    private long totalPrayerRequests;
+    private long activePrayerRequests;
+    private long publicPrayerRequests;
+    private long totalGroups;
+    private final TreeMap<LocalDate, Long> prayerRequestsPerDay = new TreeMap<>();
+    
+    private volatile boolean initialized;
+    private LocalDateTime reconciledAt;
+    private volatile Map<String, Object> snapshot;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onActivity(ActivityEvent event) {
+        switch (event.getType()) {
+            case USER_REGISTERED:
+                totalUsers++;
+                activeUsers++;
+                break;
+            case USER_ENABLED:
+                activeUsers++;
+                break;
+            case USER_DISABLED:
+                activeUsers--;
+                break;
+            case USER_DELETED:
+                totalUsers--;
+                break;
+            case GROUP_CREATED:
+                totalGroups++;
+                break;
+            case GROUP_DELETED:
+                totalGroups--;
+                break;
+            default:
+                return;
+        }
+        snapshot = null;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPrayerRequestChanged(PrayerRequestChangedEvent event) {
+        apply(event.getBefore(), -1);
+        apply(event.getAfter(), 1);
+        snapshot = null;
+    }
+    
+    public Map<String, Object> getSnapshot() {
+        Map<String, Object> current = snapshot;
+        // Rebuilt at least daily so the recent window moves without new events
+        if (current != null && ((LocalDateTime) current.get("generatedAt")).toLocalDate().equals(LocalDate.now())) {
+            return current;
+        }
+        
+        // Queried outside the monitor so a virtual thread never blocks on the DB while pinned
+        if (!initialized) {
+            reconcile();
+        }
+        
+        synchronized (this) {
+            if (snapshot == null || snapshot == current) {
+                snapshot = buildSnapshot();
+            }
+            return snapshot;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.analytics.reconcile-interval:600000}",
+               initialDelayString = "${app.analytics.reconcile-interval:600000}")
+    public void reconcile() {
+        LocalDate firstDay = LocalDate.now().minusDays(recentDays - 1);
+        
+        long users = userRepository.count();
+        long enabledUsers = userRepository.countByEnabledTrue();
+        long prayerRequests = prayerRequestRepository.count();
+        long unanswered = prayerRequestRepository.countByIsAnsweredFalse();
+        long publicRequests = prayerRequestRepository.countPublicRequests();
+        long groups = groupRepository.count();
+        List<Object[]> perDay = prayerRequestRepository.countCreatedPerDaySince(firstDay.atStartOfDay());
+        
+        synchronized (this) {
+            if (initialized && (users != totalUsers || prayerRequests != totalPrayerRequests || groups != totalGroups)) {
+                logger.info("Analytics counters drifted: users {}->{}, prayer requests {}->{}, groups {}->{}",
+                            totalUsers, users, totalPrayerRequests, prayerRequests, totalGroups, groups);
+            }
+            
+            totalUsers = users;
+            activeUsers = enabledUsers;
+            totalPrayerRequests = prayerRequests;
+            activePrayerRequests = unanswered;
+            publicPrayerRequests = publicRequests;
+            totalGroups = groups;
+            
+            prayerRequestsPerDay.clear();
+            for (Object[] row : perDay) {
+                LocalDate day = row[0] instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) row[0];
+                prayerRequestsPerDay.put(day, ((Number) row[1]).longValue());
+            }
+            
+            initialized = true;
+            reconciledAt = LocalDateTime.now();
+            snapshot = null;
+        }
+    }
+    
+    private void apply(PrayerRequestChangedEvent.State state, int delta) {
+        if (state == null) {
+            return;
+        }
+        
+        totalPrayerRequests += delta;
+        if (!state.isAnswered()) {
+            activePrayerRequests += delta;
+        }
+        if (state.isPublicVisibility()) {
+            publicPrayerRequests += delta;
+        }
+        if (state.getCreatedAt() != null) {
+            prayerRequestsPerDay.merge(state.getCreatedAt().toLocalDate(), (long) delta, Long::sum);
+        }
+    }
+    
+    private Map<String, Object> buildSnapshot() {
+        // Day buckets older than the window are dropped as the window moves
+        LocalDate firstDay = LocalDate.now().minusDays(recentDays - 1);
+        prayerRequestsPerDay.headMap(firstDay).clear();
+        long recentPrayerRequests = prayerRequestsPerDay.values().stream().mapToLong(Long::longValue).sum();
+        
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("totalUsers", totalUsers);
+        analytics.put("activeUsers", activeUsers);
+        analytics.put("totalPrayerRequests", totalPrayerRequests);
+        analytics.put("activePrayerRequests", activePrayerRequests);
+        analytics.put("publicPrayerRequests", publicPrayerRequests);
+        analytics.put("recentPrayerRequests", recentPrayerRequests);
+        analytics.put("totalGroups", totalGroups);
+        analytics.put("generatedAt", LocalDateTime.now());
+        analytics.put("reconciledAt", reconciledAt);
+        
+        return Collections.unmodifiableMap(analytics);
+    }
+}
\ No newline at end of file
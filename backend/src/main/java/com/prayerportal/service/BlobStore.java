@@ -0,0 +1,25 @@
+package com.prayerportal.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Storage for attachment bytes kept outside the database. Implementations
+// stream in both directions and never hold a whole blob in memory.
+public interface BlobStore {
+    // Copies at most maxBytes from the stream and returns the new blob's key;
+    // a longer stream fails with BlobTooLargeException and stores nothing
+    String put(InputStream in, long maxBytes) throws IOException;
+    
+    long size(String key) throws IOException;
+    
+    // Writes count bytes starting at position to the target channel
+    void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+    
+    // A file the servlet container can send directly, when the store has one
+    Optional<Path> localPath(String key);
+    
+    void delete(String key) throws IOException;
+}
\ No newline at end of file
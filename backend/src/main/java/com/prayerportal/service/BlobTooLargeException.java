@@ -0,0 +1,13 @@
+package com.prayerportal.service;
+
+import java.io.IOException;
+
+// Thrown by BlobStore.put when the stream runs past its size limit; every
+// store throws this one, so callers can answer 413 whichever is configured
+public class BlobTooLargeException extends IOException {
+    private static final long serialVersionUID = 1L;
+    
+    public BlobTooLargeException(long maxBytes) {
+        super("Upload exceeds the limit of " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,35 @@
+package com.prayerportal.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// HyperLogLog registers that request threads raise with compare-and-set
+// instead of a lock. Registers only grow, so a user already counted (their
+// register is at least their rank) costs a single read and no write.
+final class ConcurrentHyperLogLog {
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(HyperLogLog.REGISTERS);
+    
+    // True when a register grew
+    boolean add(long value) {
+        long hash = HyperLogLog.hash(value);
+        int index = HyperLogLog.index(hash);
+        int rank = HyperLogLog.rank(hash);
+        
+        int current = registers.get(index);
+        while (rank > current) {
+            if (registers.compareAndSet(index, current, rank)) {
+                return true;
+            }
+            current = registers.get(index);
+        }
+        return false;
+    }
+    
+    void mergeInto(HyperLogLog sketch) {
+        for (int i = 0; i < HyperLogLog.REGISTERS; i++) {
+            int register = registers.get(i);
+            if (register > 0) {
+                sketch.raise(i, register);
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.prayerportal.service;
+
+import com.prayerportal.config.DatasetProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Bulk-loads a reproducible synthetic dataset for scale testing, streaming
+// every table through COPY instead of JPA. Group sizes, authorship and the
+// prayers and comments per request follow power laws, so a few groups and
+// requests dominate the way they do in production. Runs once at startup
+// under the dataset profile and appends to whatever is already there.
+@Service
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+    
+    private static final String[] FIRST_NAMES = {
+        "Grace", "John", "Mary", "David", "Ruth", "Samuel", "Esther", "Daniel", "Hannah", "Joseph",
+        "Sarah", "Peter", "Lydia", "Paul", "Naomi", "James", "Abigail", "Andrew", "Priya", "Kwame"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Okafor", "Garcia", "Kim", "Nguyen", "Mensah", "Silva", "Brown", "Reddy",
+        "Williams", "Martin", "Lopez", "Chen", "Adeyemi", "Taylor", "Moore", "Patel", "Clark", "Lewis"
+    };
+    private static final String[] TOPICS = {
+        "healing", "my family", "strength", "a new job", "peace", "safe travel", "exams", "comfort in grief",
+        "guidance", "my marriage", "recovery", "my children", "provision", "our church", "a friend"
+    };
+    private static final String[] GROUP_KINDS = {
+        "Prayer Circle", "Bible Study", "Youth Group", "Women's Fellowship", "Men's Fellowship",
+        "Worship Team", "Care Ministry", "Missions Team"
+    };
+    private static final String[] COMMENTS = {
+        "Praying for you.", "Standing with you in prayer.", "God is faithful. Praying today.",
+        "Lifting this up with my small group.", "Thank you for sharing, praying for peace.",
+        "Praying for strength and comfort.", "Amen. Keep us posted."
+    };
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private DatasetProperties properties;
+    
+    @Autowired
+    private ConfigurableApplicationContext context;
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.currentTimeMillis();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            new Load(connection).run();
+        }
+        logger.info("Dataset loaded in {}s", (System.currentTimeMillis() - started) / 1000);
+        
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+    
+    // One generation pass. Ids are assigned here, offset past the current
+    // maximum of each table, so rows can reference each other before they exist.
+    private final class Load {
+        private final Connection connection;
+        private final PGConnection pgConnection;
+        private final SplittableRandom random = new SplittableRandom(properties.getSeed());
+        private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        private final int historySeconds = properties.getHistoryDays() * 86_400;
+        private final int userCount = properties.getUsers();
+        private final int groupCount = properties.getGroups();
+        private final int requestCount = properties.getPrayerRequests();
+        
+        private long userBase;
+        private long groupBase;
+        private long requestBase;
+        
+        // Rank in the author power law -> user index, scattered so heavy authors are not all early signups
+        private int userScatter;
+        private ZipfSampler authorSampler;
+        
+        // Members of group k are users (groupStart[k] + i * groupStride[k]) mod userCount for i < groupSize[k]
+        private int[] groupStart;
+        private int[] groupStride;
+        private int[] groupSize;
+        
+        private int[] requestAuthor;
+        private int[] requestAge;
+        private int[] prayerCounts;
+        private int[] commentCounts;
+        
+        private Load(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.pgConnection = connection.unwrap(PGConnection.class);
+        }
+        
+        private void run() throws SQLException, IOException {
+            if (userCount <= 0 || requestCount <= 0) {
+                throw new IllegalArgumentException("app.dataset.users and app.dataset.prayer-requests must be positive");
+            }
+            userBase = maxId("users");
+            groupBase = maxId("groups");
+            requestBase = maxId("prayer_requests");
+            
+            logger.info("Generating {} users, {} groups and {} prayer requests with seed {}",
+                        userCount, groupCount, requestCount, properties.getSeed());
+            loadUsers();
+            loadGroups();
+            loadPrayerRequests();
+            loadPrayers();
+            loadComments();
+            loadNotifications();
+            finish();
+        }
+        
+        private void loadUsers() throws SQLException, IOException {
+            userScatter = coprimeStride(userCount);
+            authorSampler = new ZipfSampler(userCount, properties.getAuthorExponent());
+            String passwordHash = passwordEncoder.encode(properties.getPassword());
+            
+            try (CopyTable users = copy("users",
+                    "id, username, email, first_name, last_name, password, role, enabled, created_at, digest_frequency")) {
+                for (int i = 0; i < userCount; i++) {
+                    long id = userId(i);
+                    double digest = random.nextDouble();
+                    users.row(id, "user" + id, "user" + id + "@example.com",
+                              FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                              passwordHash, "USER", true, timestamp(randomAge()),
+                              digest < 0.7 ? "WEEKLY" : digest < 0.8 ? "DAILY" : "NONE");
+                }
+            }
+        }
+        
+        private void loadGroups() throws SQLException, IOException {
+            groupStart = new int[groupCount];
+            groupStride = new int[groupCount];
+            groupSize = new int[groupCount];
+            
+            try (CopyTable groups = copy("groups", "id, name, description, created_at, member_count, leader_id")) {
+                for (int k = 0; k < groupCount; k++) {
+                    double size = properties.getMaxGroupSize() / Math.pow(k + 1, properties.getGroupSizeExponent());
+                    groupSize[k] = (int) Math.min(Math.max(Math.round(size), properties.getMinGroupSize()), userCount);
+                    groupStart[k] = random.nextInt(userCount);
+                    groupStride[k] = coprimeStride(userCount);
+                    
+                    String kind = GROUP_KINDS[random.nextInt(GROUP_KINDS.length)];
+                    groups.row(groupBase + k + 1, kind + " " + (groupBase + k + 1),
+                               "A community praying together for " + TOPICS[random.nextInt(TOPICS.length)] + ".",
+                               timestamp(randomAge()), groupSize[k], userId(member(k, 0)));
+                }
+            }
+            
+            try (CopyTable members = copy("group_members", "group_id, user_id")) {
+                for (int k = 0; k < groupCount; k++) {
+                    for (int i = 0; i < groupSize[k]; i++) {
+                        members.row(groupBase + k + 1, userId(member(k, i)));
+                    }
+                }
+            }
+        }
+        
+        private void loadPrayerRequests() throws SQLException, IOException {
+            requestAuthor = new int[requestCount];
+            requestAge = new int[requestCount];
+            prayerCounts = new int[requestCount];
+            commentCounts = new int[requestCount];
+            
+            // Popularity rank of each request, scattered so viral requests are spread over time
+            int requestScatter = coprimeStride(requestCount);
+            double viralExponent = properties.getViralExponent();
+            double totalWeight = 0;
+            for (int rank = 0; rank < requestCount; rank++) {
+                totalWeight += Math.pow(rank + 1, -viralExponent);
+            }
+            double prayersPerWeight = properties.getPrayers() / totalWeight;
+            double commentsPerWeight = properties.getComments() / totalWeight;
+            
+            ZipfSampler groupSampler = groupCount > 0 ? new ZipfSampler(groupCount, properties.getGroupSizeExponent()) : null;
+            
+            try (CopyTable requests = copy("prayer_requests",
+                    "id, title, description, visibility, is_anonymous, is_answered, answered_description, answered_at, " +
+                    "prayed_for_count, created_at, updated_at, author_id, group_id")) {
+                for (int r = 0; r < requestCount; r++) {
+                    double weight = Math.pow((int) ((long) r * requestScatter % requestCount) + 1, -viralExponent);
+                    // Nobody prays for the same request twice
+                    prayerCounts[r] = Math.min(randomRound(weight * prayersPerWeight), userCount);
+                    commentCounts[r] = randomRound(weight * commentsPerWeight);
+                    
+                    Long groupId = null;
+                    String visibility;
+                    if (groupSampler != null && random.nextDouble() < properties.getGroupOnlyShare()) {
+                        // Larger groups see more requests, always from one of their members
+                        int k = groupSampler.sample(random);
+                        requestAuthor[r] = member(k, random.nextInt(groupSize[k]));
+                        groupId = groupBase + k + 1;
+                        visibility = "GROUP_ONLY";
+                    } else {
+                        requestAuthor[r] = author();
+                        visibility = random.nextDouble() < properties.getPrivateShare() ? "PRIVATE" : "PUBLIC";
+                    }
+                    
+                    int age = randomAge();
+                    requestAge[r] = age;
+                    boolean answered = random.nextDouble() < properties.getAnsweredShare();
+                    String topic = TOPICS[random.nextInt(TOPICS.length)];
+                    
+                    requests.row(requestBase + r + 1, "Prayer for " + topic,
+                                 "Please pray for " + topic + ". Every prayer during this season means so much.",
+                                 visibility, random.nextInt(20) == 0, answered,
+                                 answered ? "Thank you all for praying, this prayer was answered." : null,
+                                 answered ? timestamp(random.nextInt(age + 1)) : null,
+                                 prayerCounts[r], timestamp(age), timestamp(age),
+                                 userId(requestAuthor[r]), groupId);
+                }
+            }
+        }
+        
+        private void loadPrayers() throws SQLException, IOException {
+            long id = maxId("prayers");
+            
+            try (CopyTable prayers = copy("prayers", "id, prayed_at, user_id, prayer_request_id")) {
+                for (int r = 0; r < requestCount; r++) {
+                    // A coprime stride walks distinct users
+                    int start = random.nextInt(userCount);
+                    int stride = coprimeStride(userCount);
+                    for (int i = 0; i < prayerCounts[r]; i++) {
+                        int user = (int) ((start + (long) i * stride) % userCount);
+                        prayers.row(++id, timestamp(random.nextInt(requestAge[r] + 1)), userId(user), requestBase + r + 1);
+                    }
+                }
+            }
+        }
+        
+        private void loadComments() throws SQLException, IOException {
+            long id = maxId("comments");
+            
+            try (CopyTable comments = copy("comments", "id, content, created_at, author_id, prayer_request_id")) {
+                for (int r = 0; r < requestCount; r++) {
+                    for (int i = 0; i < commentCounts[r]; i++) {
+                        comments.row(++id, COMMENTS[random.nextInt(COMMENTS.length)],
+                                     timestamp(random.nextInt(requestAge[r] + 1)), userId(author()), requestBase + r + 1);
+                    }
+                }
+            }
+        }
+        
+        // Authors hear about prayers and comments on their requests, so
+        // notifications follow the same skew as the activity behind them
+        private void loadNotifications() throws SQLException, IOException {
+            long activity = 0;
+            for (int r = 0; r < requestCount; r++) {
+                activity += prayerCounts[r] + commentCounts[r];
+            }
+            if (activity == 0) {
+                return;
+            }
+            double perActivity = (double) properties.getNotifications() / activity;
+            long id = maxId("notifications");
+            
+            try (CopyTable notifications = copy("notifications",
+                    "id, message, type, is_read, created_at, user_id, related_entity_id")) {
+                for (int r = 0; r < requestCount; r++) {
+                    int requestActivity = prayerCounts[r] + commentCounts[r];
+                    int count = randomRound(requestActivity * perActivity);
+                    for (int i = 0; i < count; i++) {
+                        boolean prayer = random.nextInt(requestActivity) < prayerCounts[r];
+                        notifications.row(++id,
+                                          prayer ? "Someone prayed for your prayer request"
+                                                 : "Someone commented on your prayer request",
+                                          prayer ? "PRAYER_RECEIVED" : "COMMENT_RECEIVED",
+                                          random.nextDouble() < 0.7,
+                                          timestamp(random.nextInt(requestAge[r] + 1)),
+                                          userId(requestAuthor[r]), requestBase + r + 1);
+                    }
+                }
+            }
+        }
+        
+        // COPY bypasses the identity sequences, so move them past the new ids
+        private void finish() throws SQLException {
+            String[] tables = {"users", "groups", "prayer_requests", "prayers", "comments", "notifications"};
+            try (Statement statement = connection.createStatement()) {
+                for (String table : tables) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                                      "(SELECT MAX(id) FROM " + table + "))");
+                }
+                statement.execute("ANALYZE users, groups, group_members, prayer_requests, prayers, comments, notifications");
+            }
+        }
+        
+        private int member(int group, int index) {
+            return (int) ((groupStart[group] + (long) index * groupStride[group]) % userCount);
+        }
+        
+        private int author() {
+            return (int) ((long) authorSampler.sample(random) * userScatter % userCount);
+        }
+        
+        private long userId(int index) {
+            return userBase + index + 1;
+        }
+        
+        // Seconds before now, weighted towards the recent past
+        private int randomAge() {
+            double u = random.nextDouble();
+            return (int) (historySeconds * u * u);
+        }
+        
+        private String timestamp(int ageSeconds) {
+            return now.minusSeconds(ageSeconds).toString();
+        }
+        
+        private int randomRound(double value) {
+            int whole = (int) value;
+            return whole + (random.nextDouble() < value - whole ? 1 : 0);
+        }
+        
+        private int coprimeStride(int n) {
+            if (n <= 2) {
+                return 1;
+            }
+            int stride;
+            do {
+                stride = 1 + random.nextInt(n - 1);
+            } while (gcd(stride, n) != 1);
+            return stride;
+        }
+        
+        private long maxId(String table) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+        
+        private CopyTable copy(String table, String columns) throws SQLException {
+            return new CopyTable(pgConnection, table, columns);
+        }
+    }
+    
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+    
+    // Streams rows to COPY ... FROM STDIN in text format. Generated values
+    // never contain tabs, newlines or backslashes, so nothing needs escaping.
+    private static final class CopyTable implements AutoCloseable {
+        private final String table;
+        private final Writer writer;
+        private final long started = System.currentTimeMillis();
+        private long rows;
+        
+        private CopyTable(PGConnection connection, String table, String columns) throws SQLException {
+            this.table = table;
+            this.writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(connection, "COPY " + table + " (" + columns + ") FROM STDIN", 1 << 16),
+                    StandardCharsets.UTF_8), 1 << 16);
+        }
+        
+        private void row(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write('\t');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    writer.write("\\N");
+                } else if (value instanceof Boolean flag) {
+                    writer.write(flag ? 't' : 'f');
+                } else {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write('\n');
+            rows++;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            long elapsedMs = Math.max(System.currentTimeMillis() - started, 1);
+            logger.info("Loaded {} rows into {} in {}s ({} rows/s)", rows, table, elapsedMs / 1000, rows * 1000 / elapsedMs);
+        }
+    }
+    
+    // Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        
+        private ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += Math.pow(i + 1, -exponent);
+                cumulative[i] = sum;
+            }
+        }
+        
+        private int sample(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.prayerportal.service;
+
+import com.prayerportal.config.EndpointEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// On-demand Java Flight Recorder sessions for a running instance. Recordings
+// are bounded in length and size, written under app.diagnostics.dir when they
+// stop, and kept until deleted. Summaries record allocation and contention
+// events for a short window and reduce them to the top types and call sites.
+@Service
+public class DiagnosticsService {
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticsService.class);
+    
+    private static final List<String> SETTINGS = List.of("default", "profile");
+    
+    @Value("${app.diagnostics.dir:./data/diagnostics}")
+    private String diagnosticsDir;
+    
+    @Value("${app.diagnostics.max-duration:600000}")
+    private long maxDurationMs;
+    
+    @Value("${app.diagnostics.max-size:104857600}")
+    private long maxSizeBytes;
+    
+    @Value("${app.diagnostics.max-recordings:2}")
+    private int maxRecordings;
+    
+    @Value("${app.diagnostics.summary.max-window:60000}")
+    private long maxWindowMs;
+    
+    @Value("${app.diagnostics.summary.contention-threshold:10}")
+    private long contentionThresholdMs;
+    
+    private Path root;
+    private final ConcurrentMap<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final AtomicBoolean summaryRunning = new AtomicBoolean();
+    
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(diagnosticsDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Stopping writes what was captured so far to the recording's file
+        recordings.values().stream()
+            .filter(recording -> recording.getState() == RecordingState.RUNNING)
+            .forEach(Recording::stop);
+    }
+    
+    public Map<String, Object> start(long durationMs, String settings) throws IOException {
+        if (durationMs <= 0 || durationMs > maxDurationMs) {
+            throw new IllegalArgumentException("duration must be between 1 and " + maxDurationMs + " ms");
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("settings must be one of " + SETTINGS);
+        }
+        
+        synchronized (recordings) {
+            long running = recordings.values().stream().filter(r -> r.getState() == RecordingState.RUNNING).count();
+            if (running >= maxRecordings) {
+                throw new IllegalStateException(running + " recordings already running; stop one first");
+            }
+            
+            Configuration configuration;
+            try {
+                configuration = Configuration.getConfiguration(settings);
+            } catch (ParseException e) {
+                throw new IOException("Unreadable JFR settings " + settings, e);
+            }
+            
+            Recording recording = new Recording(configuration);
+            recording.enable(EndpointEvent.NAME);
+            recording.setName("admin-" + settings);
+            recording.setDuration(Duration.ofMillis(durationMs));
+            recording.setMaxSize(maxSizeBytes);
+            recording.setToDisk(true);
+            recording.setDestination(root.resolve("recording-" + recording.getId() + ".jfr"));
+            recording.start();
+            recordings.put(recording.getId(), recording);
+            
+            logger.info("Started flight recording {} with {} settings for {} ms", recording.getId(), settings, durationMs);
+            return describe(recording);
+        }
+    }
+    
+    public List<Map<String, Object>> list() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        recordings.values().stream()
+            .sorted(Comparator.comparingLong(Recording::getId))
+            .forEach(recording -> result.add(describe(recording)));
+        return result;
+    }
+    
+    public Map<String, Object> stop(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null;
+        }
+        
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("Stopped flight recording {}", id);
+        }
+        return describe(recording);
+    }
+    
+    // The .jfr file exists once the recording has stopped, by hand or at the end of its duration
+    public Optional<Path> getFile(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null || recording.getState() != RecordingState.STOPPED) {
+            return Optional.empty();
+        }
+        
+        Path file = recording.getDestination();
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+    
+    public boolean delete(long id) throws IOException {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return false;
+        }
+        
+        Path file = recording.getDestination();
+        recording.close();
+        Files.deleteIfExists(file);
+        return true;
+    }
+    
+    // Blocks for the window; one summary at a time, since each adds its own overhead
+    public Map<String, Object> summarize(long windowMs, int limit) throws IOException, InterruptedException {
+        if (windowMs <= 0 || windowMs > maxWindowMs) {
+            throw new IllegalArgumentException("window must be between 1 and " + maxWindowMs + " ms");
+        }
+        if (!summaryRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("A summary is already being captured");
+        }
+        
+        try (Recording recording = new Recording()) {
+            Duration threshold = Duration.ofMillis(contentionThresholdMs);
+            recording.enable("jdk.ObjectAllocationSample").withStackTrace();
+            recording.enable("jdk.JavaMonitorEnter").withThreshold(threshold).withStackTrace();
+            recording.enable("jdk.ThreadPark").withThreshold(threshold).withStackTrace();
+            recording.start();
+            Thread.sleep(windowMs);
+            recording.stop();
+            
+            Path file = Files.createTempFile(root, "summary-", ".jfr");
+            try {
+                recording.dump(file);
+                return summarize(file, windowMs, limit);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            summaryRunning.set(false);
+        }
+    }
+    
+    private Map<String, Object> summarize(Path file, long windowMs, int limit) throws IOException {
+        Map<String, long[]> allocatedTypes = new HashMap<>();
+        Map<String, long[]> allocationSites = new HashMap<>();
+        Map<String, long[]> monitors = new HashMap<>();
+        Map<String, long[]> parks = new HashMap<>();
+        long allocatedBytes = 0;
+        
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                String site = site(event.getStackTrace());
+                switch (event.getEventType().getName()) {
+                    case "jdk.ObjectAllocationSample": {
+                        // Each sample stands for this many bytes allocated since the previous one
+                        long weight = event.getLong("weight");
+                        String type = className(event.getClass("objectClass"));
+                        allocatedBytes += weight;
+                        add(allocatedTypes, type, weight);
+                        add(allocationSites, type + " at " + site, weight);
+                        break;
+                    }
+                    case "jdk.JavaMonitorEnter":
+                        add(monitors, className(event.getClass("monitorClass")) + " at " + site,
+                            event.getDuration().toNanos());
+                        break;
+                    case "jdk.ThreadPark":
+                        add(parks, className(event.getClass("parkedClass")) + " at " + site,
+                            event.getDuration().toNanos());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        
+        Map<String, Object> allocation = new LinkedHashMap<>();
+        allocation.put("sampledBytes", allocatedBytes);
+        allocation.put("topTypes", top(allocatedTypes, limit, "bytes"));
+        allocation.put("topSites", top(allocationSites, limit, "bytes"));
+        
+        Map<String, Object> contention = new LinkedHashMap<>();
+        contention.put("thresholdMs", contentionThresholdMs);
+        contention.put("monitors", top(monitors, limit, "blockedNanos"));
+        contention.put("parks", top(parks, limit, "parkedNanos"));
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("windowMs", windowMs);
+        summary.put("allocation", allocation);
+        summary.put("contention", contention);
+        return summary;
+    }
+    
+    private Map<String, Object> describe(Recording recording) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("id", recording.getId());
+        info.put("name", recording.getName());
+        info.put("state", recording.getState());
+        info.put("startTime", recording.getStartTime());
+        info.put("stopTime", recording.getStopTime());
+        info.put("duration", recording.getDuration());
+        info.put("size", recording.getSize());
+        return info;
+    }
+    
+    // Each entry counts events and sums the given quantity
+    private static void add(Map<String, long[]> totals, String key, long amount) {
+        long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+        total[0]++;
+        total[1] += amount;
+    }
+    
+    private static List<Map<String, Object>> top(Map<String, long[]> totals, int limit, String quantity) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        totals.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+            .limit(limit)
+            .forEach(entry -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("name", entry.getKey());
+                row.put("events", entry.getValue()[0]);
+                row.put(quantity, entry.getValue()[1]);
+                result.add(row);
+            });
+        return result;
+    }
+    
+    // The first frame outside the JDK, which is where the work was asked for
+    static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack)";
+        }
+        
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return frameName(frame);
+            }
+        }
+        return frameName(stackTrace.getFrames().get(0));
+    }
+    
+    static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+    
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass != null ? recordedClass.getName() : "(unknown)";
+    }
+}
@@ -0,0 +1,312 @@
+package com.prayerportal.service;
+
+import com.prayerportal.model.DigestFrequency;
+import com.prayerportal.model.User;
+import com.prayerportal.repository.CommentRepository;
+import com.prayerportal.repository.PrayerRepository;
+import com.prayerportal.repository.PrayerRequestRepository;
+import com.prayerportal.repository.UserRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+public class DigestService {
+    private static final Logger logger = LoggerFactory.getLogger(DigestService.class);
+    
+    private static final int MAX_ANSWERED_TITLES = 10;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PrayerRepository prayerRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private PrayerRequestRepository prayerRequestRepository;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private SmtpConnectionPool smtpConnectionPool;
+    
+    @Value("${app.digest.from:${spring.mail.username:}}")
+    private String fromEmail;
+    
+    @Value("${app.digest.page-size:500}")
+    private int pageSize;
+    
+    @Value("${app.digest.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${app.digest.per-domain-per-minute:120}")
+    private int perDomainPerMinute;
+    
+    // One run per frequency at a time; daily and weekly both fire on Mondays
+    private final Map<DigestFrequency, RunState> runs = new EnumMap<>(Map.of(
+            DigestFrequency.DAILY, new RunState(),
+            DigestFrequency.WEEKLY, new RunState()));
+    
+    @Scheduled(cron = "${app.digest.daily-cron:0 0 7 * * *}")
+    public void sendDailyDigests() {
+        sendDigests(DigestFrequency.DAILY);
+    }
+    
+    @Scheduled(cron = "${app.digest.weekly-cron:0 0 7 * * MON}")
+    public void sendWeeklyDigests() {
+        sendDigests(DigestFrequency.WEEKLY);
+    }
+    
+    @Async
+    public void triggerDigests(DigestFrequency frequency) {
+        sendDigests(frequency);
+    }
+    
+    // A run requested while one of the same frequency is active is not dropped:
+    // the active run goes round again once it finishes. Only users still due are
+    // selected, so the extra round sends to those who became due meanwhile.
+    public int sendDigests(DigestFrequency frequency) {
+        if (frequency == DigestFrequency.NONE) {
+            return 0;
+        }
+        
+        RunState run = runs.get(frequency);
+        run.requested.set(true);
+        int sent = 0;
+        boolean ran = false;
+        while (run.requested.get() && run.active.compareAndSet(false, true)) {
+            ran = true;
+            try {
+                while (run.requested.getAndSet(false)) {
+                    sent += sendDue(frequency);
+                }
+            } finally {
+                run.active.set(false);
+            }
+        }
+        
+        if (!ran) {
+            logger.info("A {} digest run is in progress; it will run again when done", frequency);
+        }
+        return sent;
+    }
+    
+    private int sendDue(DigestFrequency frequency) {
+        Duration period = frequency == DigestFrequency.DAILY ? Duration.ofDays(1) : Duration.ofDays(7);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minus(period);
+        // An hour of slack so a run that started a little late last time still counts
+        LocalDateTime dueBefore = since.plusHours(1);
+        
+        DomainThrottle throttle = new DomainThrottle(perDomainPerMinute);
+        ScheduledExecutorService senders = Executors.newScheduledThreadPool(smtpConnectionPool.getMaxConnections());
+        int sent = 0;
+        
+        try {
+            long afterId = 0;
+            while (true) {
+                List<User> users = userRepository.findDueForDigest(frequency, dueBefore, afterId,
+                                                                   PageRequest.of(0, pageSize));
+                if (users.isEmpty()) {
+                    break;
+                }
+                afterId = users.get(users.size() - 1).getId();
+                
+                sent += sendPage(users, since, frequency, now, throttle, senders);
+                
+                if (users.size() < pageSize) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            senders.shutdownNow();
+        }
+        
+        logger.info("Sent {} {} digests", sent, frequency);
+        return sent;
+    }
+    
+    private int sendPage(List<User> users, LocalDateTime since, DigestFrequency frequency, LocalDateTime now,
+                         DomainThrottle throttle, ScheduledExecutorService senders) throws InterruptedException {
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        Map<Long, Long> prayers = toCounts(prayerRepository.countReceivedSince(userIds, since));
+        Map<Long, Long> comments = toCounts(commentRepository.countReceivedSince(userIds, since));
+        Map<Long, List<String>> answered = new HashMap<>();
+        for (Object[] row : prayerRequestRepository.findAnsweredInMemberGroupsSince(userIds, since)) {
+            answered.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        
+        // Users with nothing to report are marked as handled without an email
+        Set<Long> handled = ConcurrentHashMap.newKeySet();
+        Map<MimeMessage, Long> recipients = new HashMap<>();
+        Map<String, List<MimeMessage>> byDomain = new HashMap<>();
+        
+        for (User user : users) {
+            long prayerCount = prayers.getOrDefault(user.getId(), 0L);
+            long commentCount = comments.getOrDefault(user.getId(), 0L);
+            List<String> answeredTitles = answered.getOrDefault(user.getId(), Collections.emptyList());
+            
+            if (prayerCount == 0 && commentCount == 0 && answeredTitles.isEmpty()) {
+                handled.add(user.getId());
+                continue;
+            }
+            
+            try {
+                MimeMessage message = render(user, frequency, prayerCount, commentCount, answeredTitles);
+                recipients.put(message, user.getId());
+                byDomain.computeIfAbsent(domainOf(user.getEmail()), d -> new ArrayList<>()).add(message);
+            } catch (MessagingException e) {
+                logger.warn("Cannot build digest for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+        
+        // A domain's messages over its per-minute budget are scheduled for a later
+        // window rather than holding a sender thread, which keeps sending other domains
+        SmtpConnectionPool.MessageCallback callback = new SmtpConnectionPool.MessageCallback() {
+            @Override
+            public void onSent(MimeMessage message) {
+                handled.add(recipients.get(message));
+            }
+            
+            @Override
+            public void onFailed(MimeMessage message, Exception e) {
+                logger.warn("Digest to user {} failed: {}", recipients.get(message), e.getMessage());
+            }
+        };
+        
+        List<Future<Integer>> batches = new ArrayList<>();
+        for (Map.Entry<String, List<MimeMessage>> entry : byDomain.entrySet()) {
+            List<MimeMessage> batch = new ArrayList<>();
+            long batchStart = 0;
+            
+            for (MimeMessage message : entry.getValue()) {
+                long start = throttle.reserve(entry.getKey());
+                if (!batch.isEmpty() && (start != batchStart || batch.size() >= batchSize)) {
+                    batches.add(schedule(senders, batch, batchStart, callback));
+                    batch = new ArrayList<>();
+                }
+                batchStart = start;
+                batch.add(message);
+            }
+            batches.add(schedule(senders, batch, batchStart, callback));
+        }
+        
+        int sent = 0;
+        for (Future<Integer> batch : batches) {
+            try {
+                sent += batch.get();
+            } catch (ExecutionException e) {
+                logger.error("Digest batch failed: {}", e.getCause().getMessage());
+            }
+        }
+        
+        // Failed recipients stay due and are retried on the next run
+        if (!handled.isEmpty()) {
+            userRepository.markDigestSent(handled, now);
+        }
+        return sent;
+    }
+    
+    private Future<Integer> schedule(ScheduledExecutorService senders, List<MimeMessage> batch, long notBefore,
+                                     SmtpConnectionPool.MessageCallback callback) {
+        long delay = Math.max(0, notBefore - System.currentTimeMillis());
+        return senders.schedule(() -> smtpConnectionPool.sendAll(batch, callback), delay, TimeUnit.MILLISECONDS);
+    }
+    
+    private MimeMessage render(User user, DigestFrequency frequency, long prayerCount, long commentCount,
+                               List<String> answeredTitles) throws MessagingException {
+        String period = frequency == DigestFrequency.DAILY ? "daily" : "weekly";
+        StringBuilder text = new StringBuilder();
+        text.append("Hi ").append(user.getFirstName()).append(",\n\n");
+        text.append("Here is your ").append(period).append(" Prayer Portal digest.\n\n");
+        
+        if (prayerCount > 0) {
+            text.append("- ").append(prayerCount).append(prayerCount == 1 ? " person" : " people")
+                .append(" prayed for your requests\n");
+        }
+        if (commentCount > 0) {
+            text.append("- ").append(commentCount).append(commentCount == 1 ? " new comment" : " new comments")
+                .append(" on your requests\n");
+        }
+        if (!answeredTitles.isEmpty()) {
+            text.append("- Answered prayers in your groups:\n");
+            answeredTitles.stream().limit(MAX_ANSWERED_TITLES)
+                    .forEach(title -> text.append("    * ").append(title).append('\n'));
+            if (answeredTitles.size() > MAX_ANSWERED_TITLES) {
+                text.append("    and ").append(answeredTitles.size() - MAX_ANSWERED_TITLES).append(" more\n");
+            }
+        }
+        
+        text.append("\nYou can change how often you receive this email in your profile settings.\n");
+        
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        if (StringUtils.hasText(fromEmail)) {
+            helper.setFrom(fromEmail);
+        }
+        helper.setTo(user.getEmail());
+        helper.setSubject("Your " + period + " Prayer Portal digest");
+        helper.setText(text.toString());
+        return message;
+    }
+    
+    private Map<Long, Long> toCounts(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+    
+    private String domainOf(String email) {
+        int at = email.lastIndexOf('@');
+        return at >= 0 ? email.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+    }
+    
+    // Fixed one-minute windows from the start of the run, with a budget per
+    // recipient domain in each, so large providers are not flooded and do not
+    // start deferring or rate-limiting our mail. Only the paging thread reserves.
+    private static final class DomainThrottle {
+        private final int perMinute;
+        private final long started = System.currentTimeMillis();
+        private final Map<String, Integer> reserved = new HashMap<>();
+        
+        private DomainThrottle(int perMinute) {
+            this.perMinute = perMinute;
+        }
+        
+        // Counts one more message to the domain and returns when its window opens
+        private long reserve(String domain) {
+            int earlier = reserved.merge(domain, 1, Integer::sum) - 1;
+            return started + (earlier / perMinute) * 60_000L;
+        }
+    }
+    
+    private static final class RunState {
+        private final AtomicBoolean active = new AtomicBoolean();
+        private final AtomicBoolean requested = new AtomicBoolean();
+    }
+}
@@ -1,33 +1,47 @@
 package com.prayerportal.service;
 
+import com.prayerportal.model.OutboxEventType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
     
+    @Autowired
+    private OutboxService outboxService;
+    
     @Value("${spring.mail.username}")
     private String fromEmail;
     
-    @Async
+    // Queued through the outbox so failed sends are retried with backoff instead
+    // of being lost
+    @Transactional
     public void sendEmail(String to, String subject, String text) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Log error but don't throw exception to avoid breaking the main flow
-            System.err.println("Failed to send email: " + e.getMessage());
-        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("to", to);
+        payload.put("subject", subject);
+        payload.put("text", text);
+        
+        outboxService.enqueue(OutboxEventType.EMAIL, payload);
+    }
+    
+    public void deliver(String to, String subject, String text) throws MailException {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        
+        mailSender.send(message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.prayerportal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Streams admin exports straight from a forward-only JDBC cursor to the
+// response. The PostgreSQL driver only honours the fetch size inside a
+// transaction, so each export runs in its own read-only one and holds at
+// most one fetch of rows in memory.
+@Service
+public class ExportService {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    public enum Dataset {
+        USERS("users",
+              "SELECT id, username, email, first_name, last_name, role, enabled, created_at, last_login_at " +
+              "FROM users WHERE deleted_at IS NULL"),
+        PRAYER_REQUESTS("prayer-requests",
+                        "SELECT id, title, description, visibility, is_anonymous, is_answered, answered_at, " +
+                        "prayed_for_count, author_id, group_id, created_at, updated_at " +
+                        "FROM prayer_requests WHERE deleted_at IS NULL"),
+        COMMENTS("comments",
+                 "SELECT id, prayer_request_id, author_id, content, created_at " +
+                 "FROM comments WHERE deleted_at IS NULL");
+        
+        private final String slug;
+        private final String sql;
+        
+        Dataset(String slug, String sql) {
+            this.slug = slug;
+            this.sql = sql;
+        }
+        
+        public String getSlug() { return slug; }
+        
+        public static Dataset fromSlug(String slug) {
+            for (Dataset dataset : values()) {
+                if (dataset.slug.equals(slug)) {
+                    return dataset;
+                }
+            }
+            return null;
+        }
+    }
+    
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() { return contentType; }
+        
+        public String getExtension() { return extension; }
+    }
+    
+    public void export(Dataset dataset, Format format, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(dataset.sql);
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+        
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (ResultSetExtractor<Void>) resultSet -> {
+            try {
+                if (format == Format.CSV) {
+                    writeCsv(resultSet, out);
+                } else {
+                    writeNdjson(resultSet, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }));
+    }
+    
+    private void writeCsv(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        ResultSetMetaData meta = resultSet.getMetaData();
+        int columns = meta.getColumnCount();
+        
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            writer.write(meta.getColumnLabel(i));
+        }
+        writer.write("\r\n");
+        
+        while (resultSet.next()) {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(csvField(resultSet.getObject(i)));
+            }
+            writer.write("\r\n");
+        }
+        writer.flush();
+    }
+    
+    private void writeNdjson(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = resultSet.getMetaData();
+        int columns = meta.getColumnCount();
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffered)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int i = 1; i <= columns; i++) {
+                    generator.writeFieldName(meta.getColumnLabel(i));
+                    Object value = resultSet.getObject(i);
+                    if (value instanceof Timestamp timestamp) {
+                        generator.writeString(timestamp.toLocalDateTime().toString());
+                    } else {
+                        generator.writeObject(value);
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+        buffered.flush();
+    }
+    
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        
+        String text = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value.toString();
+        // Keep spreadsheet apps from evaluating user-supplied text as a formula
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+    
+    public static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.prayerportal.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prayerportal.model.Group;
+import com.prayerportal.repository.GroupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class GroupMembershipService {
+    private static final Logger logger = LoggerFactory.getLogger(GroupMembershipService.class);
+    
+    @Autowired
+    private GroupRepository groupRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Value("${app.groups.membership-cache.max-groups:10000}")
+    private int maxCachedGroups;
+    
+    // Bounds how long a leave made on another node can go unseen here; joins
+    // are always confirmed with EXISTS
+    @Value("${app.groups.membership-cache.ttl:60000}")
+    private long ttlMs;
+    
+    // Rarely checked groups are evicted past max-groups, and expired indexes are
+    // dropped rather than left behind for groups nobody checks again. Indexes
+    // load in the background; no request waits for a group's member ids.
+    private AsyncLoadingCache<Long, MemberIndex> indexes;
+    
+    @PostConstruct
+    public void init() {
+        indexes = Caffeine.newBuilder()
+                .maximumSize(maxCachedGroups)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .buildAsync(groupId -> new MemberIndex(groupRepository.findMemberIds(groupId)));
+    }
+    
+    // Members found in the index are answered from memory. Everything else is
+    // checked with EXISTS: there may be no index yet or one still loading, and
+    // an index can miss a join made on another node or during its load, where
+    // a wrong "no" would hide a member's group content.
+    public boolean isMember(Long groupId, Long userId) {
+        MemberIndex index = loaded(indexes.get(groupId));
+        if (index != null && index.contains(userId)) {
+            return true;
+        }
+        
+        boolean member = groupRepository.isMember(groupId, userId);
+        if (member && index != null) {
+            index.add(userId);
+        }
+        return member;
+    }
+    
+    // Inserts straight into group_members; the members collection is never loaded
+    @Transactional
+    public boolean join(Long groupId, Long userId) {
+        if (groupRepository.addMember(groupId, userId) == 0) {
+            return false;
+        }
+        groupRepository.adjustMemberCount(groupId, 1);
+        afterCommit(() -> {
+            evictCachedGroup(groupId);
+            MemberIndex index = loadedIndex(groupId);
+            if (index != null) {
+                index.add(userId);
+            }
+        });
+        return true;
+    }
+    
+    @Transactional
+    public boolean leave(Long groupId, Long userId) {
+        if (groupRepository.removeMember(groupId, userId) == 0) {
+            return false;
+        }
+        groupRepository.adjustMemberCount(groupId, -1);
+        afterCommit(() -> {
+            evictCachedGroup(groupId);
+            MemberIndex index = loadedIndex(groupId);
+            if (index != null) {
+                index.remove(userId);
+            }
+        });
+        return true;
+    }
+    
+    public void evict(Long groupId) {
+        indexes.synchronous().invalidate(groupId);
+    }
+    
+    @Scheduled(cron = "${app.groups.member-count-reconcile-cron:0 30 3 * * *}")
+    public void reconcileMemberCounts() {
+        int corrected = groupRepository.reconcileMemberCounts();
+        if (corrected > 0) {
+            logger.warn("Corrected member count of {} groups", corrected);
+        }
+    }
+    
+    // An index still loading may have read the members before this change
+    // committed; it is dropped, and the next check starts a fresh load
+    private MemberIndex loadedIndex(Long groupId) {
+        CompletableFuture<MemberIndex> pending = indexes.getIfPresent(groupId);
+        if (pending == null) {
+            return null;
+        }
+        MemberIndex index = loaded(pending);
+        if (index == null) {
+            indexes.synchronous().invalidate(groupId);
+        }
+        return index;
+    }
+    
+    // Null while loading or after a failed load
+    private static MemberIndex loaded(CompletableFuture<MemberIndex> pending) {
+        return pending.isDone() && !pending.isCompletedExceptionally() ? pending.join() : null;
+    }
+    
+    // adjustMemberCount leaves the groups region alone; only this group's
+    // cached copy holds the old count. Evicting before commit would let a
+    // reader cache the old row again until the entry expires.
+    private void evictCachedGroup(Long groupId) {
+        entityManagerFactory.getCache().evict(Group.class, groupId);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // Member ids of one group. Dense id ranges are held as a bitmap, sparse ones as
+    // a sorted array; joins and leaves since the load are kept in small overlays.
+    private static final class MemberIndex {
+        private final BitSet bitmap;
+        private final long[] sortedIds;
+        private final Set<Long> added = ConcurrentHashMap.newKeySet();
+        private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+        
+        private MemberIndex(List<Long> memberIds) {
+            long[] ids = memberIds.stream().mapToLong(Long::longValue).sorted().toArray();
+            long maxId = ids.length > 0 ? ids[ids.length - 1] : 0;
+            
+            // A bitmap costs maxId bits, the array 64 bits per member
+            if (maxId < Integer.MAX_VALUE && maxId / 64 <= ids.length) {
+                this.bitmap = new BitSet((int) maxId + 1);
+                for (long id : ids) {
+                    bitmap.set((int) id);
+                }
+                this.sortedIds = null;
+            } else {
+                this.bitmap = null;
+                this.sortedIds = ids;
+            }
+        }
+        
+        private boolean contains(Long userId) {
+            if (removed.contains(userId)) {
+                return false;
+            }
+            if (added.contains(userId)) {
+                return true;
+            }
+            if (bitmap != null) {
+                return userId < Integer.MAX_VALUE && bitmap.get(userId.intValue());
+            }
+            return Arrays.binarySearch(sortedIds, userId) >= 0;
+        }
+        
+        private void add(Long userId) {
+            removed.remove(userId);
+            added.add(userId);
+        }
+        
+        private void remove(Long userId) {
+            added.remove(userId);
+            removed.add(userId);
+        }
+    }
+}
\ No newline at end of file
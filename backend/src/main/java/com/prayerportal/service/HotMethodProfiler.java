@@ -0,0 +1,214 @@
+package com.prayerportal.service;
+
+import com.prayerportal.config.EndpointEvent;
+import com.prayerportal.config.RequestMetricsFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Opt-in (HOT_METHODS_ENABLED, off by default) low-rate CPU sampling through
+// a JFR stream that runs for the life of the process once enabled. Each execution
+// sample is held against its thread until that thread's EndpointEvent shows
+// up, then charged to the endpoint if it fell inside the request. Reports
+// the hottest methods per endpoint, both the sampled frame itself and the
+// first frame in our own code.
+@Service
+@ConditionalOnProperty(prefix = "app.diagnostics.hot-methods", name = "enabled", havingValue = "true")
+public class HotMethodProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(HotMethodProfiler.class);
+    
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String APP_PACKAGE = "com.prayerportal.";
+    // At the bottom of every request; finding it means no other code of ours was running
+    private static final String REQUEST_FILTER = RequestMetricsFilter.class.getName();
+    private static final String OTHER = "(other)";
+    
+    @Value("${app.diagnostics.hot-methods.sample-period:20}")
+    private long samplePeriodMs;
+    
+    // Samples older than this are dropped unattributed; so are longer requests
+    @Value("${app.diagnostics.hot-methods.max-request-time:30000}")
+    private long maxRequestTimeMs;
+    
+    // Distinct methods tracked per endpoint; the rest are counted as (other)
+    @Value("${app.diagnostics.hot-methods.max-methods:500}")
+    private int maxMethods;
+    
+    private RecordingStream stream;
+    private volatile Instant since;
+    
+    // Only touched from the stream's dispatch thread
+    private final Map<Long, ArrayDeque<Sample>> pending = new HashMap<>();
+    
+    private final Map<String, EndpointProfile> profiles = new HashMap<>();
+    
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EXECUTION_SAMPLE).withPeriod(Duration.ofMillis(samplePeriodMs));
+        stream.enable(EndpointEvent.NAME);
+        stream.setMaxAge(Duration.ofMillis(maxRequestTimeMs));
+        stream.onEvent(EXECUTION_SAMPLE, this::onSample);
+        stream.onEvent(EndpointEvent.NAME, this::onEndpoint);
+        stream.onFlush(this::prune);
+        stream.startAsync();
+        since = Instant.now();
+        
+        logger.info("Hot method profiling started, sampling every {} ms", samplePeriodMs);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+    
+    public Map<String, Object> getReport(int limit) {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        synchronized (profiles) {
+            profiles.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().samples, a.getValue().samples))
+                .forEach(entry -> {
+                    EndpointProfile profile = entry.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("endpoint", entry.getKey());
+                    row.put("requests", profile.requests);
+                    row.put("samples", profile.samples);
+                    row.put("topMethods", top(profile.topMethods, limit));
+                    row.put("topAppMethods", top(profile.appMethods, limit));
+                    endpoints.add(row);
+                });
+        }
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("since", since);
+        report.put("samplePeriodMs", samplePeriodMs);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+    
+    public void reset() {
+        synchronized (profiles) {
+            profiles.clear();
+            since = Instant.now();
+        }
+    }
+    
+    private void onSample(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        
+        long threadId = event.getThread("sampledThread").getJavaThreadId();
+        pending.computeIfAbsent(threadId, id -> new ArrayDeque<>())
+            .addLast(new Sample(event.getStartTime(), DiagnosticsService.frameName(stackTrace.getFrames().get(0)),
+                                appFrame(stackTrace)));
+    }
+    
+    // Request threads emit EndpointEvent when the request ends, after all of its samples
+    private void onEndpoint(RecordedEvent event) {
+        ArrayDeque<Sample> samples = pending.get(event.getThread().getJavaThreadId());
+        if (samples == null) {
+            return;
+        }
+        
+        Instant start = event.getStartTime();
+        Instant end = event.getEndTime();
+        String endpoint = event.getString("method") + " " + event.getString("uri");
+        
+        synchronized (profiles) {
+            EndpointProfile profile = profiles.computeIfAbsent(endpoint, key -> new EndpointProfile());
+            profile.requests++;
+            while (!samples.isEmpty() && !samples.peekFirst().time.isAfter(end)) {
+                Sample sample = samples.pollFirst();
+                if (!sample.time.isBefore(start)) {
+                    profile.samples++;
+                    count(profile.topMethods, sample.method);
+                    if (sample.appMethod != null) {
+                        count(profile.appMethods, sample.appMethod);
+                    }
+                }
+            }
+        }
+    }
+    
+    // Threads that never serve requests (schedulers, pools) would otherwise keep their samples forever
+    private void prune() {
+        Instant cutoff = Instant.now().minusMillis(maxRequestTimeMs);
+        pending.values().removeIf(samples -> {
+            while (!samples.isEmpty() && samples.peekFirst().time.isBefore(cutoff)) {
+                samples.pollFirst();
+            }
+            return samples.isEmpty();
+        });
+    }
+    
+    private void count(Map<String, Long> counts, String method) {
+        String key = counts.containsKey(method) || counts.size() < maxMethods ? method : OTHER;
+        counts.merge(key, 1L, Long::sum);
+    }
+    
+    private static String appFrame(RecordedStackTrace stackTrace) {
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.equals(REQUEST_FILTER)) {
+                return null;
+            }
+            // Spring's generated proxies only delegate
+            if (type.startsWith(APP_PACKAGE) && !type.contains("$$")) {
+                return DiagnosticsService.frameName(frame);
+            }
+        }
+        return null;
+    }
+    
+    private static List<Map<String, Object>> top(Map<String, Long> counts, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(limit)
+            .forEach(entry -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("method", entry.getKey());
+                row.put("samples", entry.getValue());
+                result.add(row);
+            });
+        return result;
+    }
+    
+    private static final class Sample {
+        private final Instant time;
+        private final String method;
+        private final String appMethod;
+        
+        private Sample(Instant time, String method, String appMethod) {
+            this.time = time;
+            this.method = method;
+            this.appMethod = appMethod;
+        }
+    }
+    
+    private static final class EndpointProfile {
+        private long requests;
+        private long samples;
+        private final Map<String, Long> topMethods = new HashMap<>();
+        private final Map<String, Long> appMethods = new HashMap<>();
+    }
+}
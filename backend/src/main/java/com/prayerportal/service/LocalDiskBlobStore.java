@@ -0,0 +1,103 @@
+package com.prayerportal.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+
+// Blobs are files under the storage directory, spread over two levels of
+// subdirectories by key prefix. Uploads land in a temporary file first and
+// are moved into place once complete.
+@Service
+public class LocalDiskBlobStore implements BlobStore {
+    @Value("${app.attachments.storage-dir:./data/attachments}")
+    private String storageDir;
+    
+    private Path root;
+    
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve("tmp"));
+    }
+    
+    @Override
+    public String put(InputStream in, long maxBytes) throws IOException {
+        String key = UUID.randomUUID().toString().replace("-", "");
+        Path temp = Files.createTempFile(root.resolve("tmp"), key, ".part");
+        
+        try {
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[64 * 1024];
+                long written = 0;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    written += read;
+                    if (written > maxBytes) {
+                        throw new BlobTooLargeException(maxBytes);
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+    
+    @Override
+    public void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long remaining = count;
+            long offset = position;
+            // transferTo may move fewer bytes than asked, so loop until the range is done
+            while (remaining > 0) {
+                long sent = channel.transferTo(offset, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                offset += sent;
+                remaining -= sent;
+            }
+        }
+    }
+    
+    @Override
+    public Optional<Path> localPath(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+    
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+    
+    private Path resolve(String key) {
+        if (!key.matches("[0-9a-f]{32}")) {
+            throw new IllegalArgumentException("Invalid blob key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
\ No newline at end of file
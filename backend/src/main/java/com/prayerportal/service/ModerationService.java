@@ -0,0 +1,172 @@
+package com.prayerportal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prayerportal.dto.BulkModerationRequest;
+import com.prayerportal.model.ModerationJob;
+import com.prayerportal.model.ModerationTarget;
+import com.prayerportal.model.PurgeStatus;
+import com.prayerportal.repository.CommentRepository;
+import com.prayerportal.repository.ModerationJobRepository;
+import com.prayerportal.repository.PrayerRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+// Bulk removal of prayer requests and comments selected by ids or filters.
+// Matching ids are walked in keyset order and removed chunk by chunk, each
+// chunk in its own transaction, with progress recorded on the job.
+@Service
+public class ModerationService {
+    private static final Logger logger = LoggerFactory.getLogger(ModerationService.class);
+    
+    @Autowired
+    private ModerationJobRepository moderationJobRepository;
+    
+    @Autowired
+    private PrayerRequestRepository prayerRequestRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private PurgeService purgeService;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.moderation.chunk-size:500}")
+    private int chunkSize;
+    
+    // Id lists up to this size are handled within the request
+    @Value("${app.moderation.inline-limit:500}")
+    private int inlineLimit;
+    
+    public ModerationJob createJob(ModerationTarget target, BulkModerationRequest request, Long requestedBy) {
+        if (request.hasIds() == request.hasFilters()) {
+            throw new IllegalArgumentException("Provide either ids or at least one filter (authorId, from, to, text)");
+        }
+        
+        try {
+            return moderationJobRepository.save(new ModerationJob(target, objectMapper.writeValueAsString(request), requestedBy));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize moderation criteria", e);
+        }
+    }
+    
+    public boolean isInline(BulkModerationRequest request) {
+        return request.hasIds() && request.getIds().size() <= inlineLimit;
+    }
+    
+    public ModerationJob getJob(Long id) {
+        return moderationJobRepository.findById(id).orElse(null);
+    }
+    
+    @Async
+    public void runAsync(Long jobId, BulkModerationRequest request) {
+        run(jobId, request);
+    }
+    
+    public ModerationJob run(Long jobId, BulkModerationRequest request) {
+        ModerationJob job = moderationJobRepository.findById(jobId).orElseThrow();
+        job.setStatus(PurgeStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        moderationJobRepository.save(job);
+        
+        long[] totals = new long[2];
+        try {
+            if (job.getTarget() == ModerationTarget.PRAYER_REQUEST) {
+                // Hidden at once; the purge jobs remove comments and prayers later
+                process(jobId, request, prayerRequestRepository::findIdsMatching, purgeService::deletePrayerRequests, totals);
+                analyticsService.reconcile();
+            } else {
+                // Hidden at once; PurgeService sweeps the rows in batches
+                process(jobId, request, commentRepository::findIdsMatching, 
+                        ids -> commentRepository.softDeleteByIds(ids, LocalDateTime.now()), totals);
+            }
+            finish(jobId, PurgeStatus.COMPLETED, null, totals);
+        } catch (RuntimeException e) {
+            finish(jobId, PurgeStatus.FAILED, e.getMessage(), totals);
+            logger.error("Moderation job {} failed: {}", jobId, e.getMessage());
+        }
+        
+        return moderationJobRepository.findById(jobId).orElse(job);
+    }
+    
+    private void process(Long jobId, BulkModerationRequest request, IdFinder finder, 
+                         Function<List<Long>, Integer> remover, long[] totals) {
+        if (request.hasIds()) {
+            List<Long> ids = new ArrayList<>(new TreeSet<>(request.getIds()));
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                applyChunk(jobId, ids.subList(from, Math.min(from + chunkSize, ids.size())), remover, totals);
+            }
+            return;
+        }
+        
+        String text = request.getText() != null && !request.getText().isBlank()
+                ? "%" + escapeLike(request.getText().toLowerCase(Locale.ROOT)) + "%" : null;
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long afterId = 0;
+        
+        while (true) {
+            List<Long> ids = finder.find(afterId, request.getAuthorId(), request.getFrom(), request.getTo(), text, chunk);
+            if (ids.isEmpty()) {
+                break;
+            }
+            applyChunk(jobId, ids, remover, totals);
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+    
+    private void applyChunk(Long jobId, List<Long> ids, Function<List<Long>, Integer> remover, long[] totals) {
+        int affected = transactionTemplate.execute(status -> {
+            int rows = remover.apply(ids);
+            moderationJobRepository.recordProgress(jobId, ids.size(), rows);
+            return rows;
+        });
+        totals[0] += ids.size();
+        totals[1] += affected;
+    }
+    
+    // Totals are written back explicitly since the bulk progress updates bypass
+    // an entity the caller's persistence context may already hold
+    private void finish(Long jobId, PurgeStatus status, String error, long[] totals) {
+        transactionTemplate.executeWithoutResult(tx -> moderationJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setMatched(totals[0]);
+            job.setAffected(totals[1]);
+            job.setLastError(error);
+            job.setCompletedAt(LocalDateTime.now());
+            moderationJobRepository.save(job);
+        }));
+    }
+    
+    // The text is matched literally: LIKE wildcards in it are escaped with '!',
+    // the escape character findIdsMatching declares
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+    
+    private interface IdFinder {
+        List<Long> find(Long afterId, Long authorId, LocalDateTime from, LocalDateTime to, String text, Pageable pageable);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.prayerportal.service;
+
+import com.prayerportal.dto.NotificationEvent;
+import com.prayerportal.model.Notification;
+import com.prayerportal.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class NotificationPushService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushService.class);
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Value("${app.notifications.push.timeout:1800000}")
+    private long connectionTimeoutMs;
+    
+    @Value("${app.notifications.push.max-pending:64}")
+    private int maxPendingPerConnection;
+    
+    // Notifications replayed per page; capped below max-pending
+    @Value("${app.notifications.push.replay-limit:50}")
+    private int replayLimit;
+    
+    // Idle connections are parked in servlet async mode and hold no thread; only
+    // connections with queued events borrow a delivery thread while they drain.
+    private final ExecutorService deliveryExecutor;
+    
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    
+    public NotificationPushService(@Value("${app.notifications.push.delivery-threads:4}") int deliveryThreads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-push-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMs);
+        Connection connection = new Connection(userId, emitter);
+        
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+        
+        connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        connectionCount.incrementAndGet();
+        
+        // Registered before replaying, so a notification saved in between may be sent
+        // twice; clients de-duplicate on the event id. The missed notifications are
+        // replayed a page at a time by the drain, whenever the queue runs empty.
+        connection.replayAfter = lastEventId;
+        connection.offer(SseEmitter.event().comment("connected"));
+        
+        return emitter;
+    }
+    
+    public void publish(Notification notification) {
+        Set<Connection> userConnections = connections.get(notification.getUser().getId());
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+        
+        SseEmitter.SseEventBuilder event = toEvent(notification);
+        userConnections.forEach(connection -> connection.offer(event));
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notifications.push.heartbeat-interval:25000}")
+    public void sendHeartbeats() {
+        connections.values().forEach(userConnections ->
+                userConnections.forEach(connection -> connection.offer(SseEmitter.event().comment("heartbeat"))));
+    }
+    
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+        deliveryExecutor.shutdownNow();
+    }
+    
+    private SseEmitter.SseEventBuilder toEvent(Notification notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name("notification")
+                .data(NotificationEvent.from(notification), MediaType.APPLICATION_JSON);
+    }
+    
+    private void unregister(Connection connection) {
+        connection.closed = true;
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+    
+    private final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // Id the next replay page starts after; null once the replay is complete
+        private volatile Long replayAfter;
+        
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+        
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            
+            // A client that cannot keep up is disconnected instead of buffered without
+            // bound; it resumes from its Last-Event-ID when it reconnects.
+            if (pendingCount.incrementAndGet() > maxPendingPerConnection) {
+                logger.debug("Closing slow notification stream for user {}", userId);
+                close();
+                return;
+            }
+            
+            pending.add(event);
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                while (!closed) {
+                    SseEmitter.SseEventBuilder event = pending.poll();
+                    if (event == null) {
+                        if (replayNextPage()) {
+                            continue;
+                        }
+                        break;
+                    }
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Notification stream for user {} closed: {}", userId, e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            
+            if (!closed && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+        
+        // Queues the next page of missed notifications. A page fits in the pending
+        // queue, so a long backlog never gets the stream closed as slow.
+        private boolean replayNextPage() {
+            Long after = replayAfter;
+            if (after == null) {
+                return false;
+            }
+            
+            int limit = Math.max(1, Math.min(replayLimit, maxPendingPerConnection - 1));
+            List<Notification> missed;
+            try {
+                missed = notificationRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                        userId, after, PageRequest.of(0, limit));
+            } catch (RuntimeException e) {
+                // Closed rather than left silent; the client resumes from its Last-Event-ID
+                logger.warn("Failed to replay notifications for user {}: {}", userId, e.getMessage());
+                close();
+                return false;
+            }
+            
+            replayAfter = missed.size() < limit ? null : missed.get(missed.size() - 1).getId();
+            missed.forEach(notification -> offer(toEvent(notification)));
+            return !missed.isEmpty();
+        }
+        
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            unregister(this);
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                logger.debug("Failed to complete notification stream: {}", e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
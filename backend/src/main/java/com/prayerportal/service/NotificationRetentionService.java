@@ -0,0 +1,123 @@
+package com.prayerportal.service;
+
+import com.prayerportal.config.NotificationRetentionProperties;
+import com.prayerportal.model.NotificationType;
+import com.prayerportal.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class NotificationRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+    
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_p(\\d{6})");
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private NotificationRetentionProperties properties;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void purgeExpiredNotifications() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        
+        if (properties.isPartitioned()) {
+            maintainPartitions(now);
+        }
+        
+        for (NotificationType type : NotificationType.values()) {
+            LocalDateTime cutoff = now.minusDays(properties.getRetentionDays(type));
+            int deleted = deleteInBatches(() ->
+                    notificationRepository.deleteExpiredBatch(type.name(), cutoff, properties.getBatchSize()));
+            if (deleted > 0) {
+                logger.info("Purged {} {} notifications older than {}", deleted, type, cutoff);
+            }
+        }
+        
+        LocalDateTime readCutoff = now.minusDays(properties.getReadDays());
+        int deleted = deleteInBatches(() ->
+                notificationRepository.deleteReadBatch(readCutoff, properties.getBatchSize()));
+        if (deleted > 0) {
+            logger.info("Purged {} read notifications older than {}", deleted, readCutoff);
+        }
+    }
+    
+    // Each batch is its own short transaction so the purge never holds locks on a
+    // large range of rows; stops early once a batch comes back short.
+    private int deleteInBatches(IntSupplier batch) {
+        int total = 0;
+        for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+            int deleted = batch.getAsInt();
+            total += deleted;
+            
+            if (deleted < properties.getBatchSize()) {
+                break;
+            }
+            
+            try {
+                Thread.sleep(properties.getPauseBetweenBatchesMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+    
+    private void maintainPartitions(LocalDateTime now) {
+        YearMonth current = YearMonth.from(now);
+        
+        for (int i = 0; i <= properties.getPartitionMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS notifications_p%s PARTITION OF notifications " +
+                    "FOR VALUES FROM ('%s') TO ('%s')",
+                    month.format(PARTITION_SUFFIX), month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+        
+        // A partition can be dropped once even the longest-lived type has expired
+        // from every row in it
+        YearMonth oldestRetained = YearMonth.from(now.minusDays(properties.getMaxRetentionDays()));
+        
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'notifications'", String.class);
+        
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_SUFFIX);
+            if (month.isBefore(oldestRetained)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                logger.info("Dropped expired notification partition {}", partition);
+            }
+        }
+    }
+}
\ No newline at end of file
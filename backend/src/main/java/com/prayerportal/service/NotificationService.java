@@ -2,30 +2,69 @@ package com.prayerportal.service;
 
 import com.prayerportal.model.Notification;
 import com.prayerportal.model.NotificationType;
+import com.prayerportal.model.OutboxEventType;
 import com.prayerportal.model.User;
 import com.prayerportal.repository.NotificationRepository;
+import com.prayerportal.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
     
-    @Async
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    // Recorded in the outbox within the caller's transaction; the outbox poller
+    // persists and pushes the notification once that transaction has committed
+    @Transactional
     public void createNotification(User user, String message, NotificationType type, Long relatedEntityId) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setMessage(message);
-        notification.setType(type);
-        notification.setRelatedEntityId(relatedEntityId);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("userId", user.getId());
+        payload.put("message", message);
+        payload.put("type", type.name());
+        payload.put("relatedEntityId", relatedEntityId);
         
-        notificationRepository.save(notification);
+        outboxService.enqueue(OutboxEventType.NOTIFICATION, payload);
     }
     
-    @Async
+    @Transactional
     public void createNotification(User user, String message, NotificationType type) {
         createNotification(user, message, type, null);
     }
+    
+    // Runs in its own transaction; the outbox dispatches outside of one and
+    // records the result afterwards
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void deliver(Long userId, String message, NotificationType type, Long relatedEntityId) {
+        Notification notification = new Notification();
+        notification.setUser(userRepository.getReferenceById(userId));
+        notification.setMessage(message);
+        notification.setType(type);
+        notification.setRelatedEntityId(relatedEntityId);
+        
+        Notification savedNotification = notificationRepository.saveAndFlush(notification);
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationPushService.publish(savedNotification);
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.prayerportal.service;
+
+import com.prayerportal.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class OutboxPoller {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxPoller.class);
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Value("${app.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+    
+    @Value("${app.outbox.processed-retention-days:7}")
+    private int processedRetentionDays;
+    
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void poll() {
+        try {
+            // Keep draining while batches come back full, up to a bound per poll
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (outboxService.processBatch() < outboxService.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Outbox poll failed: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 0 * * * *}")
+    public void deleteProcessedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(processedRetentionDays);
+        int deleted;
+        do {
+            deleted = outboxEventRepository.deleteProcessedBatch(cutoff, 1000);
+        } while (deleted == 1000);
+    }
+}
\ No newline at end of file
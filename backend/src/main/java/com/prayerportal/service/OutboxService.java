@@ -0,0 +1,203 @@
+package com.prayerportal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prayerportal.model.NotificationType;
+import com.prayerportal.model.OutboxEvent;
+import com.prayerportal.model.OutboxEventType;
+import com.prayerportal.model.OutboxStatus;
+import com.prayerportal.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class OutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // Looked up on dispatch: both services enqueue here. Not @Lazy, whose
+    // class-based proxies clash with the ones Spring AOT generates at build time
+    @Autowired
+    private ObjectProvider<NotificationService> notificationService;
+    
+    @Autowired
+    private ObjectProvider<EmailService> emailService;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.initial-backoff:5000}")
+    private long initialBackoffMs;
+    
+    @Value("${app.outbox.max-backoff:3600000}")
+    private long maxBackoffMs;
+    
+    // How long a claimed batch is held before another node may take it over;
+    // longer than any batch takes to send, or events are delivered twice
+    @Value("${app.outbox.lease:300000}")
+    private long leaseMs;
+    
+    private final AtomicLong processedTotal = new AtomicLong();
+    private final AtomicLong retriedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchDurationMs;
+    private volatile LocalDateTime lastBatchAt;
+    
+    // Joins the caller's transaction, so the event commits or rolls back together
+    // with the prayer, comment or membership change that produced it
+    @Transactional
+    public void enqueue(OutboxEventType type, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(type, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload", e);
+        }
+    }
+    
+    // Claims the batch and records its results in two short transactions and
+    // sends in between, so no row stays locked while mail servers are slow
+    public int processBatch() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        // Truncated to the column's precision, since it is matched again on record
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000).truncatedTo(ChronoUnit.MICROS);
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch(now, leaseUntil));
+        
+        List<Long> processed = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                dispatch(event);
+                processed.add(event.getId());
+                processedTotal.incrementAndGet();
+            } catch (Exception e) {
+                recordFailure(event, leaseUntil, e);
+            }
+        }
+        if (!processed.isEmpty()) {
+            outboxEventRepository.markProcessed(processed, OutboxStatus.PROCESSED, OutboxStatus.IN_PROGRESS,
+                                                leaseUntil, LocalDateTime.now());
+        }
+        
+        lastBatchSize = batch.size();
+        lastBatchDurationMs = System.currentTimeMillis() - started;
+        lastBatchAt = now;
+        return batch.size();
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public int requeueFailed() {
+        return outboxEventRepository.requeueFailed(OutboxStatus.PENDING, OutboxStatus.FAILED, LocalDateTime.now());
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        LocalDateTime oldestPending = outboxEventRepository.findOldestCreatedAt(OutboxStatus.PENDING);
+        
+        stats.put("pending", outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        stats.put("inProgress", outboxEventRepository.countByStatus(OutboxStatus.IN_PROGRESS));
+        stats.put("failed", outboxEventRepository.countByStatus(OutboxStatus.FAILED));
+        stats.put("lagSeconds", oldestPending != null ? Duration.between(oldestPending, LocalDateTime.now()).getSeconds() : 0);
+        stats.put("processedTotal", processedTotal.get());
+        stats.put("retriedTotal", retriedTotal.get());
+        stats.put("failedTotal", failedTotal.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastBatchDurationMs", lastBatchDurationMs);
+        stats.put("lastBatchAt", lastBatchAt);
+        stats.put("lastBatchThroughputPerSecond",
+                  lastBatchDurationMs > 0 ? lastBatchSize * 1000.0 / lastBatchDurationMs : lastBatchSize);
+        
+        return stats;
+    }
+    
+    public long getProcessedTotal() {
+        return processedTotal.get();
+    }
+    
+    public long getFailedTotal() {
+        return failedTotal.get();
+    }
+    
+    private List<OutboxEvent> claimNextBatch(LocalDateTime now, LocalDateTime leaseUntil) {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(now, batchSize);
+        if (!batch.isEmpty()) {
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+            outboxEventRepository.claim(ids, OutboxStatus.IN_PROGRESS, leaseUntil);
+        }
+        return batch;
+    }
+    
+    private void recordFailure(OutboxEvent event, LocalDateTime leaseUntil, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        
+        if (attempts >= maxAttempts) {
+            outboxEventRepository.recordFailure(event.getId(), OutboxStatus.IN_PROGRESS, leaseUntil,
+                                                OutboxStatus.FAILED, attempts, now, e.getMessage());
+            failedTotal.incrementAndGet();
+            logger.error("Outbox event {} ({}) failed permanently: {}", event.getId(), event.getType(), e.getMessage());
+        } else {
+            outboxEventRepository.recordFailure(event.getId(), OutboxStatus.IN_PROGRESS, leaseUntil,
+                                                OutboxStatus.PENDING, attempts, now.plus(backoff(attempts)),
+                                                e.getMessage());
+            retriedTotal.incrementAndGet();
+            logger.warn("Outbox event {} ({}) failed, attempt {}: {}", event.getId(), event.getType(),
+                        attempts, e.getMessage());
+        }
+    }
+    
+    private void dispatch(OutboxEvent event) throws JsonProcessingException {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        
+        switch (event.getType()) {
+            case NOTIFICATION:
+                notificationService.getObject().deliver(payload.get("userId").asLong(),
+                                                        payload.get("message").asText(),
+                                                        NotificationType.valueOf(payload.get("type").asText()),
+                                                        payload.hasNonNull("relatedEntityId") ? payload.get("relatedEntityId").asLong() : null);
+                break;
+            case EMAIL:
+                emailService.getObject().deliver(payload.get("to").asText(),
+                                                     payload.get("subject").asText(),
+                                                     payload.get("text").asText());
+                break;
+            default:
+                throw new IllegalStateException("Unknown outbox event type: " + event.getType());
+        }
+    }
+    
+    private Duration backoff(int attempts) {
+        long delay = initialBackoffMs * (1L << Math.min(attempts - 1, 20));
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,235 @@
+package com.prayerportal.service;
+
+import com.prayerportal.model.PurgeJob;
+import com.prayerportal.model.PurgeStatus;
+import com.prayerportal.model.PurgeTarget;
+import com.prayerportal.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+
+// Deleting a prayer request or a user only hides it; a purge job then removes
+// the rows and their children in bounded batches, each in its own short
+// transaction. Deleted comments are swept the same way without a job. Every step deletes whatever is left, so a job that is
+// interrupted can simply be run again from the start.
+@Service
+public class PurgeService {
+    private static final Logger logger = LoggerFactory.getLogger(PurgeService.class);
+    
+    @Autowired
+    private PurgeJobRepository purgeJobRepository;
+    
+    @Autowired
+    private PrayerRequestRepository prayerRequestRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private PrayerRepository prayerRepository;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private GroupRepository groupRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.purge.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${app.purge.pause-between-batches:50}")
+    private long pauseBetweenBatchesMs;
+    
+    @Value("${app.purge.stale-after:300000}")
+    private long staleAfterMs;
+    
+    @Transactional
+    public PurgeJob deletePrayerRequest(Long prayerRequestId) {
+        prayerRequestRepository.softDelete(prayerRequestId, LocalDateTime.now());
+        return enqueue(PurgeTarget.PRAYER_REQUEST, prayerRequestId);
+    }
+    
+    // Bulk variant for moderation; returns how many requests were newly hidden
+    @Transactional
+    public int deletePrayerRequests(Collection<Long> prayerRequestIds) {
+        List<Long> live = prayerRequestRepository.findLiveIds(prayerRequestIds);
+        if (live.isEmpty()) {
+            return 0;
+        }
+        
+        prayerRequestRepository.softDeleteByIds(live, LocalDateTime.now());
+        purgeJobRepository.saveAll(live.stream()
+                .map(id -> new PurgeJob(PurgeTarget.PRAYER_REQUEST, id))
+                .collect(Collectors.toList()));
+        return live.size();
+    }
+    
+    // Disables the account and hides the user's requests and comments at once
+    @Transactional
+    public PurgeJob deleteUser(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.softDelete(userId, now);
+        prayerRequestRepository.softDeleteByAuthorId(userId, now);
+        commentRepository.softDeleteByAuthorId(userId, now);
+        return enqueue(PurgeTarget.USER, userId);
+    }
+    
+    public PurgeJob getJob(Long id) {
+        return purgeJobRepository.findById(id).orElse(null);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.purge.poll-interval:5000}")
+    public void runPendingJobs() {
+        while (runNextJob()) {
+            // Keep going until no runnable job is left
+        }
+    }
+    
+    // Comments deleted on their own have no job: the rows of hidden comments are
+    // swept in batches instead. Those of a hidden request or user usually go with
+    // its job first; whichever comes first deletes them.
+    @Scheduled(fixedDelayString = "${app.purge.poll-interval:5000}")
+    public void purgeDeletedComments() {
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> commentRepository.deleteBatchSoftDeleted(batchSize));
+            purged += deleted;
+            if (deleted > 0) {
+                pause();
+            }
+        } while (deleted == batchSize);
+        
+        if (purged > 0) {
+            logger.info("Purged {} deleted comments", purged);
+        }
+    }
+    
+    public boolean runNextJob() {
+        PurgeJob job = transactionTemplate.execute(status -> claimNextJob());
+        if (job == null) {
+            return false;
+        }
+        
+        Long jobId = job.getId();
+        Long targetId = job.getTargetId();
+        try {
+            for (Step step : stepsFor(job.getTargetType())) {
+                int deleted;
+                do {
+                    deleted = transactionTemplate.execute(status -> {
+                        int rows = step.batch.apply(targetId, batchSize);
+                        purgeJobRepository.recordProgress(jobId, step.name, rows, LocalDateTime.now());
+                        return rows;
+                    });
+                    pause();
+                } while (deleted > 0);
+            }
+            finish(jobId, PurgeStatus.COMPLETED, null);
+            logger.info("Purged {} {}", job.getTargetType(), targetId);
+        } catch (RuntimeException e) {
+            finish(jobId, PurgeStatus.FAILED, e.getMessage());
+            logger.error("Purge of {} {} failed: {}", job.getTargetType(), targetId, e.getMessage());
+        }
+        return true;
+    }
+    
+    private PurgeJob enqueue(PurgeTarget targetType, Long targetId) {
+        PurgeJob job = purgeJobRepository.findByTargetTypeAndTargetId(targetType, targetId)
+                .orElseGet(() -> new PurgeJob(targetType, targetId));
+        
+        // Deleting the same target again restarts a failed job instead of adding a second one
+        if (job.getStatus() == PurgeStatus.FAILED) {
+            job.setStatus(PurgeStatus.PENDING);
+            job.setLastError(null);
+        }
+        return purgeJobRepository.save(job);
+    }
+    
+    private PurgeJob claimNextJob() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PurgeJob> jobs = purgeJobRepository.lockNextRunnable(now.minusNanos(staleAfterMs * 1_000_000));
+        if (jobs.isEmpty()) {
+            return null;
+        }
+        
+        PurgeJob job = jobs.get(0);
+        job.setStatus(PurgeStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(now);
+        }
+        job.setHeartbeatAt(now);
+        return purgeJobRepository.save(job);
+    }
+    
+    private void finish(Long jobId, PurgeStatus status, String error) {
+        transactionTemplate.executeWithoutResult(tx -> purgeJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setLastError(error);
+            job.setCompletedAt(status == PurgeStatus.COMPLETED ? LocalDateTime.now() : null);
+            purgeJobRepository.save(job);
+        }));
+    }
+    
+    // Children first, so no step ever trips over a foreign key
+    private List<Step> stepsFor(PurgeTarget targetType) {
+        switch (targetType) {
+            case PRAYER_REQUEST:
+                return List.of(
+                    new Step("comments", commentRepository::deleteBatchByPrayerRequestId),
+                    new Step("prayers", prayerRepository::deleteBatchByPrayerRequestId),
+                    new Step("prayer_request", (id, limit) -> prayerRequestRepository.purgeById(id)));
+            case USER:
+                return List.of(
+                    new Step("comments_by_user", commentRepository::deleteBatchByAuthorId),
+                    new Step("comments_on_requests", commentRepository::deleteBatchOnRequestsOfAuthor),
+                    new Step("prayers_by_user", prayerRepository::deleteBatchByUserId),
+                    new Step("prayers_on_requests", prayerRepository::deleteBatchOnRequestsOfAuthor),
+                    new Step("prayer_requests", prayerRequestRepository::deleteBatchByAuthorId),
+                    new Step("notifications", notificationRepository::deleteBatchByUserId),
+                    new Step("group_memberships", (id, limit) -> groupRepository.removeMemberFromAllGroups(id)),
+                    new Step("user", (id, limit) -> userRepository.purgeById(id)));
+            default:
+                throw new IllegalStateException("Unknown purge target: " + targetType);
+        }
+    }
+    
+    private void pause() {
+        if (pauseBetweenBatchesMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Purge interrupted", e);
+        }
+    }
+    
+    private static final class Step {
+        private final String name;
+        private final BiFunction<Long, Integer, Integer> batch;
+        
+        private Step(String name, BiFunction<Long, Integer, Integer> batch) {
+            this.name = name;
+            this.batch = batch;
+        }
+    }
+}
\ No newline at end of file
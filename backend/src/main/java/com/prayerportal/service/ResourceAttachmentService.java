@@ -0,0 +1,217 @@
+package com.prayerportal.service;
+
+import com.prayerportal.model.ResourceAttachment;
+import com.prayerportal.repository.ResourceAttachmentRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+// Stores uploaded files in the blob store and serves them with single-range
+// support. When the blob is a local file and Tomcat offers sendfile, the
+// container sends the bytes straight from the file without copying them
+// through the heap; otherwise they go through FileChannel.transferTo.
+@Service
+public class ResourceAttachmentService {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceAttachmentService.class);
+    
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    @Autowired
+    private ResourceAttachmentRepository resourceAttachmentRepository;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Value("${app.attachments.max-size:209715200}")
+    private long maxSize;
+    
+    @Value("${app.attachments.allowed-types:application/pdf,audio/mpeg,audio/mp4,audio/ogg,audio/wav}")
+    private Set<String> allowedTypes;
+    
+    @Value("${app.attachments.max-age:86400}")
+    private long maxAgeSeconds;
+    
+    public List<ResourceAttachment> findByResourceId(Long resourceId) {
+        return resourceAttachmentRepository.findByResourceIdOrderByCreatedAtAsc(resourceId);
+    }
+    
+    public Optional<ResourceAttachment> find(Long resourceId, Long attachmentId) {
+        return resourceAttachmentRepository.findByIdAndResourceId(attachmentId, resourceId);
+    }
+    
+    public ResourceAttachment upload(Long resourceId, String filename, String contentType, InputStream body) throws IOException {
+        String type = contentType != null ? contentType.split(";")[0].trim().toLowerCase(Locale.ROOT) : "";
+        if (!allowedTypes.contains(type)) {
+            throw new IllegalArgumentException("Unsupported attachment type: " + type);
+        }
+        
+        MessageDigest digest = sha256();
+        String key = blobStore.put(new DigestInputStream(body, digest), maxSize);
+        
+        try {
+            ResourceAttachment attachment = new ResourceAttachment(resourceId, cleanFilename(filename), type);
+            attachment.setStorageKey(key);
+            attachment.setSize(blobStore.size(key));
+            attachment.setSha256(HexFormat.of().formatHex(digest.digest()));
+            return resourceAttachmentRepository.save(attachment);
+        } catch (RuntimeException e) {
+            blobStore.delete(key);
+            throw e;
+        }
+    }
+    
+    public void delete(ResourceAttachment attachment) {
+        resourceAttachmentRepository.delete(attachment);
+        deleteBlob(attachment.getStorageKey());
+    }
+    
+    public void deleteAll(Long resourceId) {
+        for (ResourceAttachment attachment : findByResourceId(resourceId)) {
+            delete(attachment);
+        }
+    }
+    
+    public void stream(ResourceAttachment attachment, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = attachment.getSize();
+        String etag = "\"" + attachment.getSha256().substring(0, 32) + "\"";
+        
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAgeSeconds);
+        
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        
+        // A stale If-Range means the client's partial copy is outdated, so it gets the whole file
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        
+        long length = end - start + 1;
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(length);
+        // RFC 5987 encoding (filename*=UTF-8''...) keeps non-ASCII names intact
+        ContentDisposition disposition = ContentDisposition.inline()
+                .filename(attachment.getFilename(), StandardCharsets.UTF_8)
+                .build();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+        
+        Optional<Path> file = blobStore.localPath(attachment.getStorageKey());
+        if (file.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        blobStore.transferTo(attachment.getStorageKey(), start, length, out);
+    }
+    
+    // Returns {start, end} for one satisfiable range, an empty array when the
+    // header should be ignored, or null when the range cannot be satisfied
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            // Multiple ranges are answered with the whole file, as RFC 9110 allows
+            return new long[0];
+        }
+        
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                return new long[] {Math.max(0, size - suffix), size - 1};
+            }
+            
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+    
+    private void deleteBlob(String key) {
+        try {
+            blobStore.delete(key);
+        } catch (IOException e) {
+            logger.warn("Could not delete attachment blob {}: {}", key, e.getMessage());
+        }
+    }
+    
+    private String cleanFilename(String filename) {
+        String name = filename != null ? filename : "attachment";
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[\"\\r\\n]", "_").trim();
+        return name.isEmpty() ? "attachment" : (name.length() > 255 ? name.substring(0, 255) : name);
+    }
+    
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
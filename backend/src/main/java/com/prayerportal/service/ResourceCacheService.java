@@ -0,0 +1,224 @@
+package com.prayerportal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prayerportal.config.ReplicaRouter;
+import com.prayerportal.model.Resource;
+import com.prayerportal.model.ResourceType;
+import com.prayerportal.model.ResourceVariant;
+import com.prayerportal.repository.ResourceRepository;
+import com.prayerportal.repository.ResourceVariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serves the public resource library from an immutable snapshot of the active
+// resources. Admin writes bump the version and drop the snapshot; the next
+// read rebuilds it, and the first few list pages are kept as ready JSON.
+@Service
+public class ResourceCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCacheService.class);
+    
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private ResourceVariantRepository resourceVariantRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.resources.cache.prerendered-pages:3}")
+    private int prerenderedPages;
+    
+    private final AtomicLong version = new AtomicLong();
+    // A lock rather than a monitor, so a virtual thread loading from the DB does not pin its carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        current();
+    }
+    
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+    
+    // Picks up writes made through other instances
+    @Scheduled(fixedDelayString = "${app.resources.cache.refresh-interval:300000}",
+               initialDelayString = "${app.resources.cache.refresh-interval:300000}")
+    public void refresh() {
+        invalidate();
+        current();
+    }
+    
+    public long getVersion() {
+        return current().version;
+    }
+    
+    public Optional<Resource> findById(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+    
+    // Stored body of an active resource in the given encoding, or null if none was rendered
+    public ResourceVariant findVariant(Long id, String encoding) {
+        Map<String, ResourceVariant> variants = current().variants.get(id);
+        return variants != null ? variants.get(encoding) : null;
+    }
+    
+    // Ready JSON for the default list pages, or null when the page must be built
+    public byte[] findRenderedPage(ResourceType type, int page, int size) {
+        if (size != DEFAULT_PAGE_SIZE) {
+            return null;
+        }
+        return current().rendered.get(pageKey(type, page));
+    }
+    
+    public Page<Resource> findPage(ResourceType type, String search, int page, int size) {
+        Snapshot current = current();
+        List<Resource> matches;
+        
+        if (search != null && !search.trim().isEmpty()) {
+            String term = search.toLowerCase(Locale.ROOT);
+            matches = new ArrayList<>();
+            for (int i = 0; i < current.all.size(); i++) {
+                if (current.searchText.get(i).contains(term)) {
+                    matches.add(current.all.get(i));
+                }
+            }
+        } else if (type != null) {
+            matches = current.byType.getOrDefault(type, List.of());
+        } else {
+            matches = current.all;
+        }
+        
+        return slice(matches, PageRequest.of(page, size, Sort.by("createdAt").descending()));
+    }
+    
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        
+        loadLock.lock();
+        try {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            
+            long loadedVersion = version.get();
+            // From the primary: a replica may not have the write that invalidated the snapshot yet
+            List<Resource> resources = ReplicaRouter.onPrimary(resourceRepository::findByIsActiveTrueOrderByCreatedAtDescIdDesc);
+            List<ResourceVariant> variants = resources.isEmpty() ? List.of()
+                    : ReplicaRouter.onPrimary(() -> resourceVariantRepository.findByResourceIdIn(
+                            resources.stream().map(Resource::getId).toList()));
+            Snapshot loaded = build(loadedVersion, resources, variants);
+            // A write that landed while loading leaves the snapshot uncached for the next reader
+            if (version.get() == loadedVersion) {
+                snapshot = loaded;
+            }
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+    
+    private Snapshot build(long version, List<Resource> resources, List<ResourceVariant> variantRows) {
+        List<Resource> all = List.copyOf(resources);
+        List<String> searchText = new ArrayList<>(all.size());
+        Map<Long, Resource> byId = new HashMap<>();
+        Map<ResourceType, List<Resource>> byType = new EnumMap<>(ResourceType.class);
+        
+        for (Resource resource : all) {
+            byId.put(resource.getId(), resource);
+            if (resource.getType() != null) {
+                byType.computeIfAbsent(resource.getType(), t -> new ArrayList<>()).add(resource);
+            }
+            String title = resource.getTitle() != null ? resource.getTitle() : "";
+            String content = resource.getContent() != null ? resource.getContent() : "";
+            searchText.add((title + "\n" + content).toLowerCase(Locale.ROOT));
+        }
+        byType.replaceAll((type, list) -> List.copyOf(list));
+        
+        Map<Long, Map<String, ResourceVariant>> variants = new HashMap<>();
+        for (ResourceVariant variant : variantRows) {
+            variants.computeIfAbsent(variant.getResourceId(), id -> new HashMap<>()).put(variant.getEncoding(), variant);
+        }
+        
+        Map<String, byte[]> rendered = new HashMap<>();
+        render(rendered, null, all);
+        for (ResourceType type : ResourceType.values()) {
+            render(rendered, type, byType.getOrDefault(type, List.of()));
+        }
+        
+        logger.debug("Resource cache v{} loaded with {} active resources", version, all.size());
+        return new Snapshot(version, all, List.copyOf(searchText), Map.copyOf(byId), byType,
+                            Map.copyOf(rendered), variants);
+    }
+    
+    private void render(Map<String, byte[]> rendered, ResourceType type, List<Resource> resources) {
+        for (int page = 0; page < prerenderedPages; page++) {
+            Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE, Sort.by("createdAt").descending());
+            try {
+                rendered.put(pageKey(type, page), objectMapper.writeValueAsBytes(slice(resources, pageable)));
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not pre-render resource page {}: {}", pageKey(type, page), e.getMessage());
+                return;
+            }
+            if ((long) (page + 1) * DEFAULT_PAGE_SIZE >= resources.size()) {
+                break;
+            }
+        }
+    }
+    
+    private Page<Resource> slice(List<Resource> resources, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), resources.size());
+        int to = Math.min(from + pageable.getPageSize(), resources.size());
+        return new PageImpl<>(resources.subList(from, to), pageable, resources.size());
+    }
+    
+    private String pageKey(ResourceType type, int page) {
+        return (type != null ? type.name() : "ALL") + ":" + page;
+    }
+    
+    private static final class Snapshot {
+        private final long version;
+        private final List<Resource> all;
+        private final List<String> searchText;
+        private final Map<Long, Resource> byId;
+        private final Map<ResourceType, List<Resource>> byType;
+        private final Map<String, byte[]> rendered;
+        private final Map<Long, Map<String, ResourceVariant>> variants;
+        
+        private Snapshot(long version, List<Resource> all, List<String> searchText, Map<Long, Resource> byId,
+                         Map<ResourceType, List<Resource>> byType, Map<String, byte[]> rendered,
+                         Map<Long, Map<String, ResourceVariant>> variants) {
+            this.version = version;
+            this.all = all;
+            this.searchText = searchText;
+            this.byId = byId;
+            this.byType = byType;
+            this.rendered = rendered;
+            this.variants = variants;
+        }
+    }
+}
\ No newline at end of file
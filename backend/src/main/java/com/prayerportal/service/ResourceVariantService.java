@@ -0,0 +1,155 @@
+package com.prayerportal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prayerportal.model.Resource;
+import com.prayerportal.model.ResourceVariant;
+import com.prayerportal.repository.ResourceRepository;
+import com.prayerportal.repository.ResourceVariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Renders a resource's JSON body once per write and stores it alongside a
+// gzip copy, so reads only pick the stored bytes matching Accept-Encoding.
+@Service
+public class ResourceVariantService {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceVariantService.class);
+    
+    @Autowired
+    private ResourceVariantRepository resourceVariantRepository;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Resources written before variants existed; runs ahead of the cache warm-up
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfill() {
+        List<Long> missing = resourceVariantRepository.findResourceIdsWithoutVariants();
+        for (Long id : missing) {
+            resourceRepository.findById(id).ifPresent(this::render);
+        }
+        if (!missing.isEmpty()) {
+            logger.info("Rendered content variants for {} resources", missing.size());
+        }
+    }
+    
+    // The write and its variants commit together: when rendering fails the
+    // write rolls back, rather than leaving the old variants in front of it
+    @Transactional
+    public Resource save(Resource resource) {
+        Resource saved = resourceRepository.save(resource);
+        render(saved);
+        return saved;
+    }
+    
+    @Transactional
+    public void render(Resource resource) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(resource);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot render resource " + resource.getId(), e);
+        }
+        
+        String hash = hash(identity);
+        store(resource.getId(), ResourceVariant.IDENTITY, identity, "\"" + hash + "\"");
+        store(resource.getId(), ResourceVariant.GZIP, gzip(identity), "\"" + hash + "-gzip\"");
+    }
+    
+    @Transactional
+    public void delete(Long resourceId) {
+        resourceVariantRepository.deleteByResourceId(resourceId);
+    }
+    
+    // gzip when the client accepts it with a non-zero quality, identity otherwise.
+    // An explicit gzip entry overrides "*", so "gzip;q=0, *" refuses gzip.
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return ResourceVariant.IDENTITY;
+        }
+        
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals(ResourceVariant.GZIP)) {
+                gzip = quality(tokens);
+            } else if (coding.equals("*")) {
+                any = quality(tokens);
+            }
+        }
+        
+        double quality = gzip != null ? gzip : any != null ? any : 0;
+        return quality > 0 ? ResourceVariant.GZIP : ResourceVariant.IDENTITY;
+    }
+    
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1.0;
+    }
+    
+    private void store(Long resourceId, String encoding, byte[] body, String etag) {
+        ResourceVariant variant = resourceVariantRepository.findByResourceIdAndEncoding(resourceId, encoding)
+                .orElseGet(() -> new ResourceVariant(resourceId, encoding));
+        variant.setBody(body);
+        variant.setEtag(etag);
+        resourceVariantRepository.save(variant);
+    }
+    
+    // Compressed once per write, so the slowest level is affordable
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 3 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.prayerportal.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Reports and clears Hibernate's second-level cache. Hit, miss and put counts
+// come from Hibernate's statistics; evictions only Caffeine knows about.
+@Service
+public class SecondLevelCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheService.class);
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CacheManager hibernateCacheManager;
+    
+    public Map<String, Object> getStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        
+        for (String name : hibernateCacheManager.getCacheNames()) {
+            Map<String, Object> region = new HashMap<>();
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(name);
+            if (regionStatistics != null) {
+                region.put("hits", regionStatistics.getHitCount());
+                region.put("misses", regionStatistics.getMissCount());
+                region.put("puts", regionStatistics.getPutCount());
+            }
+            
+            Cache<Object, Object> cache = hibernateCacheManager.getCache(name);
+            if (cache != null) {
+                com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache = 
+                        cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+                CacheStats nativeStats = nativeCache.stats();
+                region.put("size", nativeCache.estimatedSize());
+                region.put("evictions", nativeStats.evictionCount());
+            }
+            regions.put(name, region);
+        }
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", statistics.getSecondLevelCacheHitCount());
+        stats.put("misses", statistics.getSecondLevelCacheMissCount());
+        stats.put("puts", statistics.getSecondLevelCachePutCount());
+        stats.put("queryHits", statistics.getQueryCacheHitCount());
+        stats.put("queryMisses", statistics.getQueryCacheMissCount());
+        stats.put("statisticsSince", statistics.getStart());
+        stats.put("regions", regions);
+        
+        return stats;
+    }
+    
+    // Entity writes already update their regions; this is for rows changed
+    // outside Hibernate, such as a manual fix applied straight to the database
+    public boolean evict(String region) {
+        // Clearing the timestamps alone would let stale query results pass as fresh
+        if (region == null || region.equals(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)) {
+            sessionFactory().getCache().evictAllRegions();
+            logger.info("Evicted all second-level cache regions");
+            return true;
+        }
+        
+        if (hibernateCacheManager.getCache(region) == null) {
+            return false;
+        }
+        sessionFactory().getCache().evictRegion(region);
+        logger.info("Evicted second-level cache region {}", region);
+        return true;
+    }
+    
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
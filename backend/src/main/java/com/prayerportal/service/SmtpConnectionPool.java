@@ -0,0 +1,136 @@
+package com.prayerportal.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+@Component
+public class SmtpConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnectionPool.class);
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    private final BlockingQueue<Transport> idle = new LinkedBlockingQueue<>();
+    
+    private final Semaphore permits;
+    
+    private final int maxConnections;
+    
+    public SmtpConnectionPool(@Value("${app.digest.smtp-connections:4}") int maxConnections) {
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections);
+    }
+    
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+    
+    // Sends every message over a single pooled SMTP session instead of opening a
+    // new connection per message; returns the number of messages accepted
+    public int sendAll(Iterable<MimeMessage> messages, MessageCallback callback) throws InterruptedException {
+        permits.acquire();
+        Iterator<MimeMessage> pending = messages.iterator();
+        Transport transport = null;
+        int sent = 0;
+        try {
+            transport = borrow();
+            while (pending.hasNext()) {
+                MimeMessage message = pending.next();
+                try {
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    callback.onSent(message);
+                    sent++;
+                } catch (MessagingException e) {
+                    callback.onFailed(message, e);
+                    if (!transport.isConnected()) {
+                        closeQuietly(transport);
+                        transport = null;
+                        transport = borrow();
+                    }
+                }
+            }
+        } catch (MessagingException e) {
+            logger.error("Cannot open SMTP connection: {}", e.getMessage());
+            // Whatever was not tried yet fails too, so the caller retries it
+            pending.forEachRemaining(message -> callback.onFailed(message, e));
+        } finally {
+            release(transport);
+            permits.release();
+        }
+        return sent;
+    }
+    
+    @PreDestroy
+    public void closeAll() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+    
+    private Transport borrow() throws MessagingException {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            // Servers drop idle sessions; isConnected() probes with NOOP
+            if (transport.isConnected()) {
+                return transport;
+            }
+            closeQuietly(transport);
+        }
+        return connect();
+    }
+    
+    private void release(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        if (transport.isConnected()) {
+            idle.offer(transport);
+        } else {
+            closeQuietly(transport);
+        }
+    }
+    
+    private Transport connect() throws MessagingException {
+        JavaMailSenderImpl sender = (JavaMailSenderImpl) mailSender;
+        Transport transport = sender.getSession().getTransport(sender.getProtocol());
+        transport.connect(sender.getHost(), sender.getPort(),
+                          StringUtils.hasLength(sender.getUsername()) ? sender.getUsername() : null,
+                          StringUtils.hasLength(sender.getPassword()) ? sender.getPassword() : null);
+        return transport;
+    }
+    
+    private void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+    
+    public interface MessageCallback {
+        void onSent(MimeMessage message);
+        
+        void onFailed(MimeMessage message, Exception e);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+-- The schema as Hibernate's ddl-auto left it before migrations were introduced,
+-- i.e. the last release without them. Existing databases are baselined at this
+-- version and skip it; new ones start here. Never add to it: a baselined
+-- database would not get the change.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) UNIQUE,
+    email VARCHAR(100) UNIQUE,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    password VARCHAR(120),
+    role VARCHAR(20),
+    enabled BOOLEAN NOT NULL,
+    bio TEXT,
+    created_at TIMESTAMP(6),
+    last_login_at TIMESTAMP(6)
+);
+
+CREATE TABLE groups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100),
+    description TEXT,
+    created_at TIMESTAMP(6),
+    leader_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE group_members (
+    group_id BIGINT NOT NULL REFERENCES groups (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    PRIMARY KEY (group_id, user_id)
+);
+
+CREATE TABLE prayer_requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(200),
+    description TEXT,
+    visibility VARCHAR(255),
+    is_anonymous BOOLEAN NOT NULL,
+    is_answered BOOLEAN NOT NULL,
+    answered_description TEXT,
+    answered_at TIMESTAMP(6),
+    prayed_for_count INTEGER NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    author_id BIGINT REFERENCES users (id),
+    group_id BIGINT REFERENCES groups (id)
+);
+
+CREATE TABLE prayers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    prayed_at TIMESTAMP(6),
+    user_id BIGINT REFERENCES users (id),
+    prayer_request_id BIGINT REFERENCES prayer_requests (id)
+);
+
+CREATE TABLE comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content TEXT,
+    created_at TIMESTAMP(6),
+    author_id BIGINT REFERENCES users (id),
+    prayer_request_id BIGINT REFERENCES prayer_requests (id)
+);
+
+CREATE TABLE notifications (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message VARCHAR(255),
+    type VARCHAR(255),
+    is_read BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6),
+    related_entity_id BIGINT,
+    user_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE resources (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(200),
+    content TEXT,
+    type VARCHAR(255),
+    author VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    is_active BOOLEAN NOT NULL
+);
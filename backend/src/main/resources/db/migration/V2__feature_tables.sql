@@ -0,0 +1,92 @@
+-- Tables and columns for the features added since the baseline release: soft
+-- deletes with purge jobs, digests, cached member counts, the outbox, bulk
+-- moderation, activity rollups, resource variants and attachments. Later
+-- migrations fill in the new columns on existing rows (V6, V7).
+
+-- Hidden at once on delete; the purge jobs remove the rows later
+ALTER TABLE users ADD COLUMN deleted_at TIMESTAMP(6);
+ALTER TABLE prayer_requests ADD COLUMN deleted_at TIMESTAMP(6);
+ALTER TABLE comments ADD COLUMN deleted_at TIMESTAMP(6);
+
+ALTER TABLE users ADD COLUMN digest_frequency VARCHAR(10);
+ALTER TABLE users ADD COLUMN last_digest_sent_at TIMESTAMP(6);
+
+ALTER TABLE groups ADD COLUMN member_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE resource_attachments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    resource_id BIGINT NOT NULL,
+    filename VARCHAR(255) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    size BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    storage_key VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP(6)
+);
+
+CREATE INDEX ON resource_attachments (resource_id);
+
+CREATE TABLE resource_variants (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    resource_id BIGINT NOT NULL,
+    encoding VARCHAR(20) NOT NULL,
+    body BYTEA NOT NULL,
+    etag VARCHAR(80) NOT NULL,
+    created_at TIMESTAMP(6),
+    UNIQUE (resource_id, encoding)
+);
+
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL,
+    created_at TIMESTAMP(6),
+    next_attempt_at TIMESTAMP(6),
+    processed_at TIMESTAMP(6),
+    last_error TEXT
+);
+
+CREATE TABLE purge_jobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    target_type VARCHAR(20) NOT NULL,
+    target_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    phase VARCHAR(50),
+    deleted_rows BIGINT NOT NULL,
+    batches INTEGER NOT NULL,
+    created_at TIMESTAMP(6),
+    started_at TIMESTAMP(6),
+    heartbeat_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    last_error TEXT,
+    UNIQUE (target_type, target_id)
+);
+
+CREATE TABLE moderation_jobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    target VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    criteria TEXT,
+    requested_by BIGINT,
+    matched BIGINT NOT NULL,
+    affected BIGINT NOT NULL,
+    created_at TIMESTAMP(6),
+    started_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    last_error TEXT
+);
+
+CREATE TABLE activity_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    prayer_requests BIGINT NOT NULL,
+    prayers BIGINT NOT NULL,
+    comments BIGINT NOT NULL,
+    signups BIGINT NOT NULL,
+    active_users_sketch BYTEA,
+    updated_at TIMESTAMP(6),
+    UNIQUE (granularity, bucket_start)
+);
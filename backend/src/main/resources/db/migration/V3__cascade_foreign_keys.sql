@@ -0,0 +1,47 @@
+-- Deleting a user, group or prayer request takes its dependent rows with it in
+-- the database, so a bulk or native delete cannot leave orphans behind or fail
+-- on them. The purge jobs still delete children in batches first; these only
+-- catch what is left. A group outlives its leader instead of being deleted
+-- with them.
+--
+-- Hibernate named the old constraints itself, so they are found by column.
+-- On a partitioned notifications table the change propagates to every partition.
+
+DO $$
+DECLARE
+    fk RECORD;
+    old_constraint RECORD;
+BEGIN
+    FOR fk IN
+        SELECT * FROM (VALUES
+            ('groups', 'leader_id', 'users', 'SET NULL'),
+            ('group_members', 'group_id', 'groups', 'CASCADE'),
+            ('group_members', 'user_id', 'users', 'CASCADE'),
+            ('prayer_requests', 'author_id', 'users', 'CASCADE'),
+            ('prayer_requests', 'group_id', 'groups', 'CASCADE'),
+            ('prayers', 'user_id', 'users', 'CASCADE'),
+            ('prayers', 'prayer_request_id', 'prayer_requests', 'CASCADE'),
+            ('comments', 'author_id', 'users', 'CASCADE'),
+            ('comments', 'prayer_request_id', 'prayer_requests', 'CASCADE'),
+            ('notifications', 'user_id', 'users', 'CASCADE')
+        ) AS f (table_name, column_name, referenced_table, on_delete)
+    LOOP
+        FOR old_constraint IN
+            SELECT c.conname
+            FROM pg_constraint c
+            JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+            WHERE c.conrelid = fk.table_name::regclass
+              AND c.contype = 'f'
+              AND cardinality(c.conkey) = 1
+              AND a.attname = fk.column_name
+              -- Partitions inherit the parent's constraint and drop with it
+              AND c.conparentid = 0
+        LOOP
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', fk.table_name, old_constraint.conname);
+        END LOOP;
+
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (%I) REFERENCES %I (id) ON DELETE %s',
+                       fk.table_name, 'fk_' || fk.table_name || '_' || fk.column_name,
+                       fk.column_name, fk.referenced_table, fk.on_delete);
+    END LOOP;
+END $$;
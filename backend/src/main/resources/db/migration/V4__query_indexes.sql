@@ -0,0 +1,55 @@
+-- Indexes for the repository queries that otherwise scan whole tables. Built
+-- CONCURRENTLY so a large existing database keeps taking writes meanwhile,
+-- which Flyway runs outside a transaction. If a build fails it leaves an
+-- invalid index behind; drop it and run the migration again.
+-- IndexUsageTest (src/test) proves each one is used.
+
+-- Feed and search: PUBLIC or GROUP_ONLY, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayer_requests_visibility_created
+    ON prayer_requests (visibility, created_at);
+
+-- A group's prayer requests, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayer_requests_group_created
+    ON prayer_requests (group_id, created_at);
+
+-- My requests, soft delete and purge by author
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayer_requests_author
+    ON prayer_requests (author_id);
+
+-- Dashboard counts and daily stats since a date
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayer_requests_created
+    ON prayer_requests (created_at);
+
+-- The groups a user belongs to; the primary key only serves lookups by group
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_group_members_user
+    ON group_members (user_id, group_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_groups_leader
+    ON groups (leader_id);
+
+-- Has this user prayed for this request
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayers_user_request
+    ON prayers (user_id, prayer_request_id);
+
+-- Prayer counts and purge by request
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prayers_request
+    ON prayers (prayer_request_id);
+
+-- A request's comments, oldest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_request_created
+    ON comments (prayer_request_id, created_at);
+
+-- Soft delete and purge by author
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_author
+    ON comments (author_id);
+
+-- Active resources, newest first; inactive ones are never listed
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_resources_active_created
+    ON resources (created_at, id) WHERE is_active = true;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_resources_active_type
+    ON resources (type) WHERE is_active = true;
+
+-- The outbox poller's claim; processed events pile up until cleanup and stay out of it
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_pending
+    ON outbox_events (id) WHERE status = 'PENDING';
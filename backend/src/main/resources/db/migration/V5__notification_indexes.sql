@@ -0,0 +1,14 @@
+-- Not CONCURRENTLY: the notifications table may already be partitioned
+-- (db/partitioning/notifications_partitioned.sql), and PostgreSQL cannot build
+-- an index on a partitioned table that way. On a large unpartitioned table the
+-- build holds off new notifications until it finishes; to avoid that, create
+-- both indexes by hand with CREATE INDEX CONCURRENTLY before upgrading and
+-- this migration skips them.
+
+-- A user's notifications, newest first; also narrows the stream replay to the user
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created
+    ON notifications (user_id, created_at);
+
+-- Unread counts, polled by every open client; read notifications are most of the table
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread
+    ON notifications (user_id) WHERE is_read = false;
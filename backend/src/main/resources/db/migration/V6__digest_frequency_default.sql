@@ -0,0 +1,7 @@
+-- Accounts created before digests existed have no frequency, and a profile
+-- update that left the field out used to clear it. The digest jobs select by
+-- frequency, so those users silently got nothing; give them the default.
+UPDATE users SET digest_frequency = 'WEEKLY' WHERE digest_frequency IS NULL;
+
+ALTER TABLE users ALTER COLUMN digest_frequency SET DEFAULT 'WEEKLY';
+ALTER TABLE users ALTER COLUMN digest_frequency SET NOT NULL;
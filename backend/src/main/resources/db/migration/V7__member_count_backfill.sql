@@ -0,0 +1,8 @@
+-- member_count was added to groups that already had members and started at 0
+-- for them; count the actual members once instead of waiting for the nightly
+-- reconcile job.
+UPDATE groups g SET member_count = c.actual
+FROM (SELECT g2.id, COUNT(m.user_id) AS actual
+      FROM groups g2 LEFT JOIN group_members m ON m.group_id = g2.id
+      GROUP BY g2.id) c
+WHERE g.id = c.id AND g.member_count <> c.actual;
@@ -0,0 +1,14 @@
+-- Outbox events are now claimed (IN_PROGRESS, with the lease end in
+-- next_attempt_at) before they are sent, and the poller also takes over
+-- claims whose lease ran out. Built CONCURRENTLY like V4.
+
+-- The poller's claim: due PENDING events and expired IN_PROGRESS ones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_claimable
+    ON outbox_events (id) WHERE status IN ('PENDING', 'IN_PROGRESS');
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_outbox_events_pending;
+
+-- Backlog counts per status and the oldest pending event, for the admin stats;
+-- without it each count scans every processed event still kept
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_events_status_created
+    ON outbox_events (status, created_at);
@@ -0,0 +1,5 @@
+-- Comments deleted one at a time or by bulk moderation are hidden first and
+-- their rows purged in batches (PurgeService.purgeDeletedComments). Only hidden
+-- comments are indexed, so the index stays small. Built CONCURRENTLY like V4.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_deleted
+    ON comments (id) WHERE deleted_at IS NOT NULL;
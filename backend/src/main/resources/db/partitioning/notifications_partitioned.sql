@@ -0,0 +1,51 @@
+-- Converts the notifications table into monthly range partitions on created_at.
+--
+-- Run once during a maintenance window, then set
+-- app.notifications.retention.partitioned=true so the retention job creates
+-- upcoming partitions and drops expired ones instead of deleting row by row.
+-- Partitions must be named notifications_pYYYYMM.
+
+BEGIN;
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+-- Frees the names for the new table's indexes (db/migration V5)
+ALTER INDEX IF EXISTS idx_notifications_user_created RENAME TO idx_notifications_legacy_user_created;
+ALTER INDEX IF EXISTS idx_notifications_user_unread RENAME TO idx_notifications_legacy_user_unread;
+
+CREATE TABLE notifications (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at TIMESTAMP(6) NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    message VARCHAR(255),
+    related_entity_id BIGINT,
+    type VARCHAR(255),
+    user_id BIGINT,
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_notifications_user_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+CREATE INDEX idx_notifications_user_unread ON notifications (user_id) WHERE is_read = false;
+
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM notifications_legacy), now()));
+    last_month DATE := date_trunc('month', now()) + INTERVAL '2 months';
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE notifications_p%s PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO notifications (id, created_at, is_read, message, related_entity_id, type, user_id)
+SELECT id, COALESCE(created_at, now()), is_read, message, related_entity_id, type, user_id
+FROM notifications_legacy;
+
+SELECT setval(pg_get_serial_sequence('notifications', 'id'), COALESCE((SELECT MAX(id) FROM notifications), 1));
+
+COMMIT;
+
+-- After verifying the application against the new layout:
+-- DROP TABLE notifications_legacy;
@@ -0,0 +1,36 @@
+package com.prayerportal;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// One PostgreSQL server for the whole test JVM, started from the binaries that
+// embedded-postgres bundles, so the tests need neither Docker nor a local
+// install. Every Spring context in the run migrates and shares its database;
+// tests keep apart by the names they give their rows. embedded-postgres stops
+// the server from its own shutdown hook, alongside the one closing the contexts.
+public final class TestDatabase {
+    private static EmbeddedPostgres postgres;
+    
+    private TestDatabase() {
+    }
+    
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestDatabase::url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+    
+    private static synchronized String url() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start the test PostgreSQL", e);
+            }
+        }
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+}
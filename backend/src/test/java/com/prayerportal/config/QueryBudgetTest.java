@@ -0,0 +1,203 @@
+package com.prayerportal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prayerportal.TestDatabase;
+import com.prayerportal.model.Comment;
+import com.prayerportal.model.Group;
+import com.prayerportal.model.PrayerRequest;
+import com.prayerportal.model.User;
+import com.prayerportal.model.Visibility;
+import com.prayerportal.repository.CommentRepository;
+import com.prayerportal.repository.GroupRepository;
+import com.prayerportal.repository.PrayerRequestRepository;
+import com.prayerportal.repository.UserRepository;
+import com.prayerportal.service.GroupMembershipService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Holds the read endpoints to their @QueryBudget and fails on any statement
+// repeated within one request, against real data where an N+1 would show:
+// several members, requests by different authors and comments on each.
+// Each endpoint is measured with an empty second-level cache and again warm.
+@SpringBootTest(properties = "app.query-budget.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+    private static final String PREFIX = "qb-";
+    private static final String PASSWORD = "query-budget-password";
+    private static final int USERS = 5;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private QueryBudgetMonitor queryBudgetMonitor;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private GroupRepository groupRepository;
+    
+    @Autowired
+    private PrayerRequestRepository prayerRequestRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private GroupMembershipService groupMembershipService;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Long groupId;
+    private Long prayerRequestId;
+    private String token;
+    
+    @BeforeAll
+    void seed() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String username = PREFIX + "user-" + i;
+            User user = new User(username, username + "@test.local", "Query", "Budget " + i,
+                                 passwordEncoder.encode(PASSWORD));
+            users.add(userRepository.save(user));
+        }
+        User leader = users.get(0);
+        
+        for (int g = 0; g < 3; g++) {
+            Group group = groupRepository.save(new Group(PREFIX + "group-" + g, "Query budget group", leader));
+            for (User user : users) {
+                groupMembershipService.join(group.getId(), user.getId());
+            }
+            if (groupId == null) {
+                groupId = group.getId();
+            }
+        }
+        
+        Group group = groupRepository.findById(groupId).orElseThrow();
+        for (User author : users) {
+            PrayerRequest request = new PrayerRequest("Request by " + author.getUsername(), "Please pray", author);
+            request.setGroup(group);
+            request.setVisibility(Visibility.GROUP_ONLY);
+            request = prayerRequestRepository.save(request);
+            if (prayerRequestId == null) {
+                prayerRequestId = request.getId();
+            }
+        }
+        
+        PrayerRequest request = prayerRequestRepository.findById(prayerRequestId).orElseThrow();
+        for (User author : users) {
+            commentRepository.save(new Comment("Praying, " + author.getUsername(), author, request));
+        }
+        
+        token = signIn(leader.getUsername());
+    }
+    
+    @Test
+    void getAllGroups() throws Exception {
+        assertWithinBudget(get("/groups"));
+    }
+    
+    @Test
+    void getGroupById() throws Exception {
+        assertWithinBudget(get("/groups/{id}", groupId));
+    }
+    
+    @Test
+    void getGroupMembers() throws Exception {
+        assertWithinBudget(get("/groups/{id}/members", groupId));
+    }
+    
+    @Test
+    void getMyGroups() throws Exception {
+        assertWithinBudget(get("/groups/my-groups"));
+    }
+    
+    @Test
+    void getGroupPrayers() throws Exception {
+        assertWithinBudget(get("/groups/{id}/prayers", groupId));
+    }
+    
+    @Test
+    void getFeed() throws Exception {
+        assertWithinBudget(get("/prayer-requests"));
+    }
+    
+    @Test
+    void getCommentsByPrayerRequest() throws Exception {
+        assertWithinBudget(get("/comments/prayer-request/{id}", prayerRequestId));
+    }
+    
+    @Test
+    void getMyRequests() throws Exception {
+        assertWithinBudget(get("/prayer-requests/my-requests"));
+    }
+    
+    @Test
+    void reportIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/actuator/querybudget")).andExpect(status().isUnauthorized());
+        mockMvc.perform(authorized(get("/actuator/querybudget"))).andExpect(status().isForbidden());
+        mockMvc.perform(authorized(delete("/actuator/querybudget"))).andExpect(status().isForbidden());
+    }
+    
+    private void assertWithinBudget(MockHttpServletRequestBuilder request) throws Exception {
+        queryBudgetMonitor.reset();
+        entityManagerFactory.getCache().evictAll();
+        for (int run = 0; run < 2; run++) {
+            mockMvc.perform(authorized(request)).andExpect(status().isOk());
+        }
+        
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> violations = (List<Map<String, Object>>) queryBudgetMonitor.report().get("violations");
+        assertThat(violations).as("statement count over budget or repeated statements").isEmpty();
+    }
+    
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+    
+    private String signIn(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD));
+        String response = mockMvc.perform(post("/auth/signin").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
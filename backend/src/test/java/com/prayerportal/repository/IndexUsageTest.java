@@ -0,0 +1,289 @@
+package com.prayerportal.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prayerportal.TestDatabase;
+import com.prayerportal.config.QueryCountInspector;
+import com.prayerportal.model.Group;
+import com.prayerportal.model.OutboxStatus;
+import com.prayerportal.model.PrayerRequest;
+import com.prayerportal.model.ResourceType;
+import com.prayerportal.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each index from db/migration against the SQL Hibernate generates for the
+// repository method it was made for. The statements are captured as the method
+// runs, then EXPLAINed as generic plans (independent of parameter values) with
+// sequential scans switched off, so the check proves the index can serve the
+// query whatever the table size or the values passed.
+@SpringBootTest(properties = "app.query-budget.enabled=true")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTest {
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private GroupRepository groupRepository;
+    
+    @Autowired
+    private PrayerRequestRepository prayerRequestRepository;
+    
+    @Autowired
+    private PrayerRepository prayerRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User user;
+    private Group group;
+    private PrayerRequest prayerRequest;
+    
+    @BeforeAll
+    void seed() throws Exception {
+        user = userRepository.save(new User("iu-user", "iu-user@test.local", "Index", "Usage", "unused"));
+        group = groupRepository.save(new Group("iu-group", "Index usage group", user));
+        prayerRequest = prayerRequestRepository.save(new PrayerRequest("Index usage", "Please pray", user));
+        
+        // The active resources are loaded whole; reading them in index order only
+        // beats sorting once the planner knows there are many wide rows
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO resources (title, content, type, author, created_at, updated_at, is_active) " +
+                              "SELECT 'iu-resource-' || i, repeat('x', 2000), 'ARTICLE', 'Index Usage', " +
+                              "now() - i * INTERVAL '1 minute', now(), i % 10 <> 0 FROM generate_series(1, 5000) i");
+            statement.execute("ANALYZE resources");
+        }
+    }
+    
+    @AfterAll
+    void cleanUp() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM resources WHERE title LIKE 'iu-resource-%'");
+        }
+    }
+    
+    @Test
+    void feed() throws Exception {
+        assertUsesIndex("idx_prayer_requests_visibility_created",
+                        () -> prayerRequestRepository.findVisibleToUser(user.getId(), FIRST_PAGE));
+    }
+    
+    @Test
+    void groupPrayers() throws Exception {
+        assertUsesIndex("idx_prayer_requests_group_created",
+                        () -> prayerRequestRepository.findByGroupId(group.getId(), FIRST_PAGE));
+    }
+    
+    @Test
+    void myRequests() throws Exception {
+        assertUsesIndex("idx_prayer_requests_author", () -> prayerRequestRepository.findByAuthor(user, FIRST_PAGE));
+    }
+    
+    @Test
+    void requestsSince() throws Exception {
+        assertUsesIndex("idx_prayer_requests_created",
+                        () -> prayerRequestRepository.countByCreatedAtAfter(LocalDateTime.now().minusDays(7)));
+    }
+    
+    @Test
+    void myGroups() throws Exception {
+        assertUsesIndex("idx_group_members_user", () -> groupRepository.findByMemberId(user.getId(), FIRST_PAGE));
+    }
+    
+    @Test
+    void ledGroups() throws Exception {
+        assertUsesIndex("idx_groups_leader", () -> groupRepository.countByLeaderId(user.getId()));
+    }
+    
+    @Test
+    void hasPrayed() throws Exception {
+        assertUsesIndex("idx_prayers_user_request",
+                        () -> prayerRepository.existsByUserAndPrayerRequest(user, prayerRequest));
+    }
+    
+    @Test
+    void prayerCount() throws Exception {
+        assertUsesIndex("idx_prayers_request", () -> prayerRepository.countByPrayerRequest(prayerRequest));
+    }
+    
+    @Test
+    void comments() throws Exception {
+        assertUsesIndex("idx_comments_request_created",
+                        () -> commentRepository.findByPrayerRequestIdOrderByCreatedAtAsc(prayerRequest.getId(), FIRST_PAGE));
+    }
+    
+    @Test
+    void softDeleteComments() throws Exception {
+        assertUsesIndex("idx_comments_author",
+                        () -> commentRepository.softDeleteByAuthorId(-1L, LocalDateTime.now()));
+    }
+    
+    @Test
+    void purgeDeletedComments() throws Exception {
+        assertUsesIndex("idx_comments_deleted", () -> commentRepository.deleteBatchSoftDeleted(1000));
+    }
+    
+    // The requested notifications (user_id, is_read, created_at) index is split
+    // in two: the list reads read and unread alike, newest first, while the
+    // unread count only needs the small partial index
+    @Test
+    void notifications() throws Exception {
+        assertUsesIndex("idx_notifications_user_created",
+                        () -> notificationRepository.findByUserOrderByCreatedAtDesc(user, FIRST_PAGE));
+    }
+    
+    @Test
+    void unreadCount() throws Exception {
+        assertUsesIndex("idx_notifications_user_unread", () -> notificationRepository.countByUserAndIsReadFalse(user));
+    }
+    
+    @Test
+    void activeResources() throws Exception {
+        assertUsesIndex("idx_resources_active_created",
+                        () -> resourceRepository.findByIsActiveTrueOrderByCreatedAtDescIdDesc());
+    }
+    
+    @Test
+    void resourcesByType() throws Exception {
+        assertUsesIndex("idx_resources_active_type",
+                        () -> resourceRepository.findByTypeAndIsActiveTrue(ResourceType.ARTICLE, FIRST_PAGE));
+    }
+    
+    @Test
+    void outboxClaim() throws Exception {
+        assertUsesIndex("idx_outbox_events_claimable",
+                        () -> outboxEventRepository.lockNextBatch(LocalDateTime.now(), 50));
+    }
+    
+    @Test
+    void outboxBacklog() throws Exception {
+        assertUsesIndex("idx_outbox_events_status_created",
+                        () -> outboxEventRepository.countByStatus(OutboxStatus.FAILED));
+    }
+    
+    // Passes when any statement the call issued reads the index; a page, for
+    // instance, also runs its count query
+    private void assertUsesIndex(String index, Runnable call) throws Exception {
+        List<String> statements = capture(call);
+        assertThat(statements).as("statements issued").isNotEmpty();
+        
+        List<String> plans = new ArrayList<>();
+        Set<String> used = new HashSet<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                statement.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            }
+            for (String sql : statements) {
+                JsonNode plan = explain(connection, sql);
+                collectIndexes(plan, used);
+                plans.add(sql + "\n" + plan.toPrettyString());
+            }
+            connection.rollback();
+        }
+        
+        assertThat(used).as("indexes read by\n%s", String.join("\n\n", plans)).contains(index);
+    }
+    
+    private List<String> capture(Runnable call) {
+        entityManagerFactory.getCache().evictAll();
+        QueryCountInspector.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                call.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            QueryCountInspector.stop();
+        }
+        return new ArrayList<>(QueryCountInspector.executions().keySet());
+    }
+    
+    // Prepared with $n placeholders and run with every parameter NULL; the
+    // generic plan is forced, so the NULLs never shape it
+    private JsonNode explain(Connection connection, String sql) throws Exception {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PREPARE checked AS " + numbered);
+            String nulls = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE checked" + nulls)) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).path(0).path("Plan");
+            } finally {
+                statement.execute("DEALLOCATE checked");
+            }
+        }
+    }
+    
+    // Index, index-only and bitmap index scans all name their index
+    private static void collectIndexes(JsonNode plan, Set<String> indexes) {
+        if (plan.hasNonNull("Index Name")) {
+            indexes.add(plan.get("Index Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectIndexes(child, indexes);
+        }
+    }
+}